@@ -0,0 +1,123 @@
+import longhorn.bench.Workload;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link Workload} implementation over the project's classes. Only the
+ * benchmarks create it, through {@link Workload#forCohort}.
+ *
+ * @author LonghornNetwork Team
+ */
+public class CohortWorkload implements Workload {
+    /** Generator of the cohort */
+    private final CohortGenerator generator;
+    /** The generated students */
+    private final List<UniversityStudent> students;
+    /** Builds the graph measured by buildGraph */
+    private Supplier<StudentGraph> graphBuilder;
+    /** Referral finder over the prepared graph, or null before prepareReferrals */
+    private ReferralPathFinder finder;
+    /** Message store, or null before prepareMessaging */
+    private MessageStore messages;
+
+    /**
+     * Generates the cohort with the generator's default number of ages.
+     *
+     * @param size           the number of students
+     * @param majorCount     the number of distinct majors
+     * @param companyCount   the number of distinct internship companies
+     * @param maxPreferences the maximum roommate preference list length
+     * @param seed           the random seed
+     */
+    public CohortWorkload(int size, int majorCount, int companyCount, int maxPreferences, long seed) {
+        this(size, majorCount, companyCount, CohortGenerator.DEFAULT_AGE_COUNT, maxPreferences, seed);
+    }
+
+    /**
+     * Generates the cohort.
+     *
+     * @param size           the number of students
+     * @param majorCount     the number of distinct majors
+     * @param companyCount   the number of distinct internship companies
+     * @param ageCount       the number of distinct ages
+     * @param maxPreferences the maximum roommate preference list length
+     * @param seed           the random seed
+     */
+    public CohortWorkload(int size, int majorCount, int companyCount, int ageCount, int maxPreferences, long seed) {
+        this.generator = new CohortGenerator(majorCount, companyCount, ageCount, maxPreferences,
+                Math.min(3, companyCount), 0, seed);
+        this.students = generator.generate(size);
+        this.graphBuilder = () -> new StudentGraph(students);
+    }
+
+    @Override
+    public int size() {
+        return students.size();
+    }
+
+    @Override
+    public void prepareGraphBuild(String builder) {
+        switch (builder) {
+            case "DEFAULT":
+                graphBuilder = () -> new StudentGraph(students);
+                break;
+            case "PARALLEL":
+                ParallelGraphBuilder parallel = new ParallelGraphBuilder();
+                graphBuilder = () -> parallel.build(students);
+                break;
+            default:
+                StudentGraph.BuildStrategy strategy = StudentGraph.BuildStrategy.valueOf(builder);
+                graphBuilder = () -> new StudentGraph(students, strategy);
+                break;
+        }
+    }
+
+    @Override
+    public Object buildGraph() {
+        return graphBuilder.get();
+    }
+
+    @Override
+    public void prepareReferrals(String searchMode) {
+        finder = new ReferralPathFinder(new StudentGraph(students),
+                ReferralPathFinder.SearchMode.valueOf(searchMode));
+    }
+
+    @Override
+    public Object findReferralPath(int start, int company) {
+        return finder.findReferralPath(students.get(start), "Company" + company);
+    }
+
+    @Override
+    public Object matchRoommates() {
+        return GaleShapley.match(students);
+    }
+
+    @Override
+    public void writeCohort(Path file) throws IOException {
+        generator.write(students.size(), file);
+    }
+
+    @Override
+    public Object parse(Path file) throws IOException {
+        return DataParser.parseStudents(file.toString());
+    }
+
+    @Override
+    public Object parseParallel(Path file, int parallelism) throws IOException {
+        return DataParser.parseStudentsParallel(file.toString(), parallelism);
+    }
+
+    @Override
+    public void prepareMessaging(int capacity) {
+        messages = new MessageStore(new StudentDirectory(), capacity);
+    }
+
+    @Override
+    public Object sendMessage(int senderId, int receiverId) {
+        return messages.send(senderId, receiverId, "Hello there!");
+    }
+}
@@ -0,0 +1,60 @@
+package longhorn.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a student graph from a cohort with each builder: the
+ * default constructor, the PAIRWISE and INDEXED strategies, and the
+ * fork-join ParallelGraphBuilder. Cohorts come from
+ * {@link Workload#forScaledCohort}: up to 10k students they are dense, with
+ * the given majors and companies and eight ages, and beyond that sparse, so
+ * that 100k and 1M students fit the heap. PAIRWISE compares every pair and
+ * takes over an hour per build at 1M students; leave it out with
+ * {@code -p builder=DEFAULT,INDEXED,PARALLEL} for the large sizes.
+ *
+ * @author LonghornNetwork Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GraphBuildBenchmark {
+    /** Number of students */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+    /** Number of distinct majors in dense cohorts */
+    @Param({"20"})
+    public int majors;
+    /** Number of distinct internship companies in dense cohorts */
+    @Param({"50"})
+    public int companies;
+    /** Graph builder, see {@link Workload#prepareGraphBuild(String)} */
+    @Param({"DEFAULT", "PAIRWISE", "INDEXED", "PARALLEL"})
+    public String builder;
+
+    /** The cohort */
+    private Workload workload;
+
+    /**
+     * Generates the cohort and selects the builder.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.forScaledCohort(size, majors, companies, 5, 42);
+        workload.prepareGraphBuild(builder);
+    }
+
+    /**
+     * Builds the graph with the selected builder.
+     *
+     * @return the graph
+     */
+    @Benchmark
+    public Object build() {
+        return workload.buildGraph();
+    }
+}
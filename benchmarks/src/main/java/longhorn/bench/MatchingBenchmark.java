@@ -0,0 +1,47 @@
+package longhorn.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a Gale-Shapley roommate matching over a whole cohort, including
+ * resolving preference names and counting blocking pairs.
+ *
+ * @author LonghornNetwork Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MatchingBenchmark {
+    /** Number of students */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+    /** Maximum roommate preference list length */
+    @Param({"5"})
+    public int preferences;
+
+    /** The cohort */
+    private Workload workload;
+
+    /**
+     * Generates the cohort.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.forCohort(size, 20, 50, preferences, 42);
+    }
+
+    /**
+     * Computes the matching.
+     *
+     * @return the matching
+     */
+    @Benchmark
+    public Object match() {
+        return workload.matchRoommates();
+    }
+}
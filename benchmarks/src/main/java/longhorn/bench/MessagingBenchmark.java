@@ -0,0 +1,81 @@
+package longhorn.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures message appends with one thread per available processor. In the
+ * {@code separate} benchmark every thread writes to its own conversation,
+ * which should scale with the thread count; in {@code shared} all threads
+ * write to one conversation and contend on its sequence counter.
+ *
+ * @author LonghornNetwork Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class MessagingBenchmark {
+    /** Number of recent messages kept per conversation */
+    @Param({"256"})
+    public int capacity;
+
+    /** The store, shared by all threads */
+    private Workload workload;
+    /** Hands out per-thread conversation numbers */
+    private final AtomicInteger threads = new AtomicInteger();
+
+    /**
+     * Per-thread conversation.
+     */
+    @State(Scope.Thread)
+    public static class Conversation {
+        /** Sender id of this thread's conversation */
+        int sender;
+
+        /**
+         * Claims a conversation for the thread.
+         *
+         * @param benchmark the shared state
+         */
+        @Setup(Level.Trial)
+        public void setUp(MessagingBenchmark benchmark) {
+            sender = 2 * benchmark.threads.getAndIncrement();
+        }
+    }
+
+    /**
+     * Creates the store.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.forCohort(0, 1, 1, 0, 42);
+        workload.prepareMessaging(capacity);
+    }
+
+    /**
+     * Appends to the thread's own conversation.
+     *
+     * @param conversation the thread's conversation
+     * @return the stored message
+     */
+    @Benchmark
+    public Object separate(Conversation conversation) {
+        return workload.sendMessage(conversation.sender, conversation.sender + 1);
+    }
+
+    /**
+     * Appends to the conversation every thread writes to.
+     *
+     * @return the stored message
+     */
+    @Benchmark
+    public Object shared() {
+        return workload.sendMessage(0, 1);
+    }
+}
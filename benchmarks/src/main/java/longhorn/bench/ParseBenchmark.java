@@ -0,0 +1,76 @@
+package longhorn.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a student file, sequentially and in parallel chunks. The
+ * file is generated into a temporary directory before the trial and deleted
+ * after it.
+ *
+ * @author LonghornNetwork Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParseBenchmark {
+    /** Number of students in the file */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** The cohort */
+    private Workload workload;
+    /** The generated file */
+    private Path file;
+
+    /**
+     * Writes the student file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workload = Workload.forCohort(size, 20, 50, 5, 42);
+        file = Files.createTempFile("cohort", ".txt");
+        workload.writeCohort(file);
+    }
+
+    /**
+     * Deletes the student file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Parses the file on the calling thread.
+     *
+     * @return the students
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public Object parse() throws IOException {
+        return workload.parse(file);
+    }
+
+    /**
+     * Parses the file with one worker per available processor.
+     *
+     * @return the parse result
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public Object parseParallel() throws IOException {
+        return workload.parseParallel(file, Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,57 @@
+package longhorn.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single referral path queries on a prebuilt graph. Each call
+ * starts from the next student and targets the next company, so successive
+ * calls explore different parts of the graph. Cohorts up to 10k students
+ * are dense and larger ones sparse, as in {@link GraphBuildBenchmark}; the
+ * target companies exist at every size.
+ *
+ * @author LonghornNetwork Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReferralBenchmark {
+    /** Number of students */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+    /** Number of target companies, and of distinct companies in dense cohorts */
+    @Param({"50"})
+    public int companies;
+    /** Name of the ReferralPathFinder.SearchMode used */
+    @Param({"FORWARD", "MULTI_SOURCE", "BIDIRECTIONAL"})
+    public String searchMode;
+
+    /** The cohort and its graph */
+    private Workload workload;
+    /** Index of the next query */
+    private int query;
+
+    /**
+     * Generates the cohort and builds its graph.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.forScaledCohort(size, 20, companies, 5, 42);
+        workload.prepareReferrals(searchMode);
+    }
+
+    /**
+     * Runs one query.
+     *
+     * @return the path
+     */
+    @Benchmark
+    public Object findReferralPath() {
+        int q = query++;
+        return workload.findReferralPath(Math.floorMod(q, size), Math.floorMod(q, companies));
+    }
+}
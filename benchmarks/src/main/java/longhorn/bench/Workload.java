@@ -0,0 +1,183 @@
+package longhorn.bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Operations measured by the benchmarks, over one synthetic cohort. The
+ * project's classes live in the unnamed package, which JMH benchmarks cannot
+ * use and named packages cannot import, so the benchmarks reach them through
+ * this interface. The implementation, {@code CohortWorkload}, sits in the
+ * unnamed package and is created reflectively once per trial; calls made
+ * inside a measurement are ordinary interface calls.
+ *
+ * @author LonghornNetwork Team
+ */
+public interface Workload {
+    /** Largest cohort that {@link #forScaledCohort} generates with the given pools */
+    int DENSE_LIMIT = 10_000;
+    /** Students per major, per company and per age in larger cohorts from {@link #forScaledCohort} */
+    int SPARSE_GROUP_SIZE = 4;
+
+    /**
+     * Generates a cohort with the generator's default eight ages and returns
+     * a workload over it.
+     *
+     * @param size           the number of students
+     * @param majorCount     the number of distinct majors
+     * @param companyCount   the number of distinct internship companies
+     * @param maxPreferences the maximum roommate preference list length
+     * @param seed           the random seed
+     * @return the workload
+     * @throws IllegalStateException if the implementation cannot be created
+     */
+    static Workload forCohort(int size, int majorCount, int companyCount, int maxPreferences, long seed) {
+        try {
+            return (Workload) Class.forName("CohortWorkload")
+                    .getConstructor(int.class, int.class, int.class, int.class, long.class)
+                    .newInstance(size, majorCount, companyCount, maxPreferences, seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the cohort workload", e);
+        }
+    }
+
+    /**
+     * Generates a cohort with the given number of ages and returns a workload over it.
+     *
+     * @param size           the number of students
+     * @param majorCount     the number of distinct majors
+     * @param companyCount   the number of distinct internship companies
+     * @param ageCount       the number of distinct ages
+     * @param maxPreferences the maximum roommate preference list length
+     * @param seed           the random seed
+     * @return the workload
+     * @throws IllegalStateException if the implementation cannot be created
+     */
+    static Workload forCohort(int size, int majorCount, int companyCount, int ageCount, int maxPreferences,
+                              long seed) {
+        try {
+            return (Workload) Class.forName("CohortWorkload")
+                    .getConstructor(int.class, int.class, int.class, int.class, int.class, long.class)
+                    .newInstance(size, majorCount, companyCount, ageCount, maxPreferences, seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the cohort workload", e);
+        }
+    }
+
+    /**
+     * Generates a cohort whose graph stays within a benchmark heap at any
+     * size. Students of the same major or age, or who share a company, are
+     * always connected, so fixed pools give a graph with quadratically many
+     * edges. Up to {@link #DENSE_LIMIT} students the given pools and the
+     * default ages are used. Larger cohorts get one major, company and age
+     * per {@link #SPARSE_GROUP_SIZE} students, which keeps the edge count
+     * linear in the size.
+     *
+     * @param size           the number of students
+     * @param majorCount     the number of distinct majors in a dense cohort
+     * @param companyCount   the number of distinct internship companies in a dense cohort
+     * @param maxPreferences the maximum roommate preference list length
+     * @param seed           the random seed
+     * @return the workload
+     * @throws IllegalStateException if the implementation cannot be created
+     */
+    static Workload forScaledCohort(int size, int majorCount, int companyCount, int maxPreferences, long seed) {
+        if (size <= DENSE_LIMIT) {
+            return forCohort(size, majorCount, companyCount, maxPreferences, seed);
+        }
+        int pool = size / SPARSE_GROUP_SIZE;
+        return forCohort(size, Math.max(majorCount, pool), Math.max(companyCount, pool), pool, maxPreferences, seed);
+    }
+
+    /**
+     * Returns the number of students in the cohort.
+     *
+     * @return the cohort size
+     */
+    int size();
+
+    /**
+     * Chooses how {@link #buildGraph()} builds the graph.
+     *
+     * @param builder {@code DEFAULT} for the size-based choice of the
+     *                {@code StudentGraph} constructor, the name of a
+     *                {@code StudentGraph.BuildStrategy}, or {@code PARALLEL}
+     *                for a {@code ParallelGraphBuilder} using every processor
+     * @throws IllegalArgumentException if the builder name is unknown
+     */
+    void prepareGraphBuild(String builder);
+
+    /**
+     * Builds a student graph over the cohort with the prepared builder, or
+     * the default one if none was prepared.
+     *
+     * @return the graph
+     */
+    Object buildGraph();
+
+    /**
+     * Builds the graph used by {@link #findReferralPath(int, int)}.
+     *
+     * @param searchMode the name of a {@code ReferralPathFinder.SearchMode}
+     */
+    void prepareReferrals(String searchMode);
+
+    /**
+     * Finds a referral path on the prepared graph.
+     *
+     * @param start   the index of the starting student
+     * @param company the index of the target company
+     * @return the path
+     */
+    Object findReferralPath(int start, int company);
+
+    /**
+     * Computes a Gale-Shapley roommate matching without printing or changing any student.
+     *
+     * @return the matching
+     */
+    Object matchRoommates();
+
+    /**
+     * Writes the cohort in the student file format.
+     *
+     * @param file the file to create or replace
+     * @throws IOException if the file cannot be written
+     */
+    void writeCohort(Path file) throws IOException;
+
+    /**
+     * Parses a student file sequentially.
+     *
+     * @param file the student file
+     * @return the parsed students
+     * @throws IOException if the file cannot be read
+     */
+    Object parse(Path file) throws IOException;
+
+    /**
+     * Parses a student file in parallel chunks.
+     *
+     * @param file        the student file
+     * @param parallelism the number of worker threads
+     * @return the parse result
+     * @throws IOException if the file cannot be read
+     */
+    Object parseParallel(Path file, int parallelism) throws IOException;
+
+    /**
+     * Creates an empty message store used by {@link #sendMessage(int, int)}.
+     *
+     * @param capacity the number of recent messages kept per conversation
+     */
+    void prepareMessaging(int capacity);
+
+    /**
+     * Appends a message to the conversation between two student ids.
+     *
+     * @param senderId   the sender id
+     * @param receiverId the receiver id
+     * @return the stored message
+     */
+    Object sendMessage(int senderId, int receiverId);
+}
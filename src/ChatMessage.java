@@ -0,0 +1,90 @@
+/**
+ * A message stored by {@link MessageStore}. Messages of one conversation are
+ * numbered consecutively from 0 in the order they were appended.
+ *
+ * @author LonghornNetwork Team
+ */
+public final class ChatMessage {
+    /** Directory id of the sender */
+    private final int senderId;
+    /** Directory id of the receiver */
+    private final int receiverId;
+    /** Position of the message in its conversation */
+    private final long sequence;
+    /** Time the message was appended, in milliseconds since the epoch */
+    private final long timestamp;
+    /** The message content */
+    private final String text;
+
+    /**
+     * Constructs a message.
+     *
+     * @param senderId   the directory id of the sender
+     * @param receiverId the directory id of the receiver
+     * @param sequence   the position of the message in its conversation
+     * @param timestamp  the time the message was appended, in milliseconds since the epoch
+     * @param text       the message content
+     */
+    public ChatMessage(int senderId, int receiverId, long sequence, long timestamp, String text) {
+        this.senderId = senderId;
+        this.receiverId = receiverId;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.text = text;
+    }
+
+    /**
+     * Returns the directory id of the sender.
+     *
+     * @return the sender id
+     */
+    public int getSenderId() {
+        return senderId;
+    }
+
+    /**
+     * Returns the directory id of the receiver.
+     *
+     * @return the receiver id
+     */
+    public int getReceiverId() {
+        return receiverId;
+    }
+
+    /**
+     * Returns the position of the message in its conversation.
+     *
+     * @return the sequence number, starting at 0
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the time the message was appended.
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the message content.
+     *
+     * @return the text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns a string representation of this message.
+     *
+     * @return the sequence number, sender and receiver ids, and text
+     */
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + senderId + " -> " + receiverId + ": " + text;
+    }
+}
@@ -1,9 +1,12 @@
-import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 /**
  * Thread class for simulating chat/messaging interactions between students.
  * Implements Runnable to allow concurrent message processing.
- * Ensures thread-safe operations when updating chat histories.
+ * Messages are appended to a lock-free {@link MessageStore}, so chats in
+ * different conversations never wait for each other, and nothing blocks
+ * while holding a monitor, so tasks can run on virtual threads without
+ * pinning their carriers (see {@link InteractionExecutor}).
  * 
  * @author LonghornNetwork Team
  */
@@ -14,37 +17,79 @@ public class ChatThread implements Runnable {
     private final UniversityStudent receiver;
     /** The message content to be sent */
     private final String message;
-    /** Semaphore for thread-safe message output */
-    private static final Semaphore outputSemaphore = new Semaphore(1);
+    /** Store receiving the message */
+    private final MessageStore store;
+    /** Receives the chat line, or null for no output */
+    private final Consumer<String> log;
     
     /**
      * Constructs a ChatThread with the specified sender, receiver, and message.
-     * 
+     * The message is printed to standard output and recorded in a new store
+     * of this thread's own, reachable through {@link #getStore()}.
+     *
      * @param sender The UniversityStudent sending the message
      * @param receiver The UniversityStudent receiving the message
      * @param message The message content to be sent
+     * @deprecated Messages sent this way never share a conversation; use
+     *             {@link #ChatThread(UniversityStudent, UniversityStudent, String, MessageStore)}
+     *             with a store owned by the caller.
      */
+    @Deprecated
     public ChatThread(UniversityStudent sender, UniversityStudent receiver, String message) {
+        this(sender, receiver, message, new MessageStore());
+    }
+
+    /**
+     * Constructs a ChatThread that records the message in the given store and
+     * prints it to standard output.
+     *
+     * @param sender The UniversityStudent sending the message
+     * @param receiver The UniversityStudent receiving the message
+     * @param message The message content to be sent
+     * @param store The store receiving the message
+     */
+    public ChatThread(UniversityStudent sender, UniversityStudent receiver, String message, MessageStore store) {
+        this(sender, receiver, message, store, System.out::println);
+    }
+
+    /**
+     * Constructs a ChatThread that records the message in the given store and
+     * reports it to a log sink.
+     *
+     * @param sender The UniversityStudent sending the message
+     * @param receiver The UniversityStudent receiving the message
+     * @param message The message content to be sent
+     * @param store The store receiving the message
+     * @param log Receives the chat line, or null for no output
+     */
+    public ChatThread(UniversityStudent sender, UniversityStudent receiver, String message, MessageStore store,
+                      Consumer<String> log) {
         this.sender = sender;
         this.receiver = receiver;
         this.message = message;
+        this.store = store;
+        this.log = log;
+    }
+
+    /**
+     * Returns the store that receives the message.
+     *
+     * @return the message store
+     */
+    public MessageStore getStore() {
+        return store;
     }
 
     /**
      * Executes the chat operation in a separate thread.
-     * Updates the chat history between sender and receiver,
-     * ensuring thread-safe updates to shared resources.
+     * Appends the message to the conversation between sender and receiver
+     * and reports it; each line is passed whole in a single call.
      */
     @Override
     public void run() {
-        try {
-            outputSemaphore.acquire();
-            System.out.println("Chat (Thread-safe): " + sender.name + " to " + receiver.name + ": " + message);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("Chat interrupted: " + e.getMessage());
-        } finally {
-            outputSemaphore.release();
+        ChatMessage stored = store.send(sender, receiver, message);
+        if (log != null) {
+            log.accept("Chat (Thread-safe): " + sender.name + " to " + receiver.name + ": " + stored.getText());
         }
     }
 }
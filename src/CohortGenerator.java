@@ -0,0 +1,288 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Generates synthetic cohorts of any size for benchmarks and load tests.
+ * Students are named "S0", "S1", ... in the style of the
+ * {@code Main.generateTestCase*} fixtures. Majors and internship companies
+ * follow a Zipf distribution, so a few are very popular and most are rare.
+ * Roommate preferences are drawn like a dorm: students are placed in
+ * clusters of {@link #CLUSTER_SIZE} and mostly name clustermates, often
+ * naming back someone who named them, with an occasional pick from the whole
+ * cohort. The same settings and seed always produce the same cohort.
+ *
+ * @author LonghornNetwork Team
+ */
+public class CohortGenerator {
+    /** Number of consecutive students that mostly prefer each other */
+    public static final int CLUSTER_SIZE = 64;
+    /** Zipf exponent used by {@link #CohortGenerator(long)} */
+    public static final double DEFAULT_SKEW = 1.0;
+    /** Number of distinct ages, 18 and up, unless a constructor says otherwise */
+    public static final int DEFAULT_AGE_COUNT = 8;
+
+    /** Chance that a preference names back a clustermate who listed this student */
+    private static final double RECIPROCAL_CHANCE = 0.4;
+    /** Chance that any other preference is a clustermate rather than anyone in the cohort */
+    private static final double CLUSTER_CHANCE = 0.85;
+
+    /** Distribution of majors */
+    private final ZipfDistribution majors;
+    /** Distribution of internship companies */
+    private final ZipfDistribution companies;
+    /** Number of distinct ages, drawn uniformly from 18 up */
+    private final int ageCount;
+    /** Maximum length of a roommate preference list */
+    private final int maxPreferences;
+    /** Maximum number of previous internships per student */
+    private final int maxInternships;
+    /** Seed of the random sequence */
+    private final long seed;
+
+    /**
+     * Constructs a generator with 20 majors, 50 companies, preference lists of
+     * up to 5 names, up to 3 internships per student and a Zipf exponent of
+     * {@link #DEFAULT_SKEW}.
+     *
+     * @param seed the random seed
+     */
+    public CohortGenerator(long seed) {
+        this(20, 50, 5, 3, DEFAULT_SKEW, seed);
+    }
+
+    /**
+     * Constructs a generator with the given pool sizes, drawing majors and
+     * companies uniformly.
+     *
+     * @param majorCount     the number of distinct majors (at least 1)
+     * @param companyCount   the number of distinct companies (at least 1)
+     * @param maxPreferences the maximum roommate preference list length
+     * @param maxInternships the maximum number of internships per student, at most companyCount
+     * @param seed           the random seed
+     * @throws IllegalArgumentException if a count is out of range
+     */
+    public CohortGenerator(int majorCount, int companyCount, int maxPreferences, int maxInternships, long seed) {
+        this(majorCount, companyCount, maxPreferences, maxInternships, 0, seed);
+    }
+
+    /**
+     * Constructs a generator with the given pool sizes and popularity skew
+     * and {@link #DEFAULT_AGE_COUNT} ages.
+     *
+     * @param majorCount     the number of distinct majors (at least 1)
+     * @param companyCount   the number of distinct companies (at least 1)
+     * @param maxPreferences the maximum roommate preference list length
+     * @param maxInternships the maximum number of internships per student, at most companyCount
+     * @param skew           the Zipf exponent of major and company popularity; 0 is uniform
+     * @param seed           the random seed
+     * @throws IllegalArgumentException if a count is out of range or the skew is negative
+     */
+    public CohortGenerator(int majorCount, int companyCount, int maxPreferences, int maxInternships,
+                           double skew, long seed) {
+        this(majorCount, companyCount, DEFAULT_AGE_COUNT, maxPreferences, maxInternships, skew, seed);
+    }
+
+    /**
+     * Constructs a generator with the given pool sizes, number of ages and
+     * popularity skew. Students of the same age are always connected, so a
+     * few ages make the graph dense; an age count that grows with the cohort
+     * keeps large cohorts sparse.
+     *
+     * @param majorCount     the number of distinct majors (at least 1)
+     * @param companyCount   the number of distinct companies (at least 1)
+     * @param ageCount       the number of distinct ages, drawn uniformly from 18 up (at least 1)
+     * @param maxPreferences the maximum roommate preference list length
+     * @param maxInternships the maximum number of internships per student, at most companyCount
+     * @param skew           the Zipf exponent of major and company popularity; 0 is uniform
+     * @param seed           the random seed
+     * @throws IllegalArgumentException if a count is out of range or the skew is negative
+     */
+    public CohortGenerator(int majorCount, int companyCount, int ageCount, int maxPreferences, int maxInternships,
+                           double skew, long seed) {
+        if (majorCount < 1 || companyCount < 1 || ageCount < 1) {
+            throw new IllegalArgumentException("Major, company and age counts must be at least 1: "
+                    + majorCount + ", " + companyCount + ", " + ageCount);
+        }
+        if (maxPreferences < 0 || maxInternships < 0 || maxInternships > companyCount) {
+            throw new IllegalArgumentException("Invalid list lengths: " + maxPreferences + ", " + maxInternships);
+        }
+        if (!(skew >= 0)) {
+            throw new IllegalArgumentException("Skew must be non-negative: " + skew);
+        }
+        this.majors = new ZipfDistribution(majorCount, skew);
+        this.companies = new ZipfDistribution(companyCount, skew);
+        this.ageCount = ageCount;
+        this.maxPreferences = maxPreferences;
+        this.maxInternships = maxInternships;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates a cohort in memory.
+     *
+     * @param size the number of students
+     * @return the students, in name order
+     */
+    public List<UniversityStudent> generate(int size) {
+        List<UniversityStudent> students = new ArrayList<>(size);
+        Random random = new Random(seed);
+        for (int start = 0; start < size; start += CLUSTER_SIZE) {
+            students.addAll(cluster(start, Math.min(size, start + CLUSTER_SIZE), size, random));
+        }
+        return students;
+    }
+
+    /**
+     * Writes a cohort in the format read by {@link DataParser}, one cluster at
+     * a time, so any size can be written in constant memory. The file parses
+     * to the same students as {@link #generate(int)}.
+     *
+     * @param size the number of students
+     * @param file the file to create or replace
+     * @throws IOException if the file cannot be written
+     */
+    public void write(int size, Path file) throws IOException {
+        Random random = new Random(seed);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            for (int start = 0; start < size; start += CLUSTER_SIZE) {
+                for (UniversityStudent student : cluster(start, Math.min(size, start + CLUSTER_SIZE), size, random)) {
+                    out.write("Student:\nName: " + student.name
+                            + "\nAge: " + student.age
+                            + "\nGender: " + student.gender
+                            + "\nYear: " + student.year
+                            + "\nMajor: " + student.major
+                            + "\nGPA: " + student.gpa
+                            + "\nRoommatePreferences: " + joined(student.roommatePreferences)
+                            + "\nPreviousInternships: " + joined(student.previousInternships)
+                            + "\n\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the students of one cluster: their attributes first, then
+     * their preference lists in index order.
+     *
+     * @param start  the index of the cluster's first student
+     * @param end    the index after the cluster's last student
+     * @param size   the cohort size
+     * @param random the random sequence
+     * @return the cluster's students
+     */
+    private List<UniversityStudent> cluster(int start, int end, int size, Random random) {
+        int count = end - start;
+        int[] ages = new int[count];
+        String[] genders = new String[count];
+        int[] years = new int[count];
+        String[] studentMajors = new String[count];
+        double[] gpas = new double[count];
+        List<List<String>> internships = new ArrayList<>(count);
+        for (int a = 0; a < count; a++) {
+            ages[a] = 18 + random.nextInt(ageCount);
+            genders[a] = random.nextBoolean() ? "Female" : "Male";
+            years[a] = 1 + random.nextInt(4);
+            studentMajors[a] = "Major" + majors.sample(random);
+            // Two decimals, so the written file parses back to the same value
+            gpas[a] = (200 + random.nextInt(201)) / 100.0;
+
+            List<String> list = new ArrayList<>();
+            int internshipCount = random.nextInt(maxInternships + 1);
+            // Bounded, since a steep skew makes every draw but the top few companies rare
+            for (int attempt = 0; attempt < 4 * internshipCount && list.size() < internshipCount; attempt++) {
+                String company = "Company" + companies.sample(random);
+                if (!list.contains(company)) {
+                    list.add(company);
+                }
+            }
+            internships.add(list);
+        }
+
+        // Clustermates that have listed each student so far
+        List<List<Integer>> listedBy = new ArrayList<>(count);
+        for (int a = 0; a < count; a++) {
+            listedBy.add(new ArrayList<>());
+        }
+        List<UniversityStudent> students = new ArrayList<>(count);
+        for (int a = 0; a < count; a++) {
+            int i = start + a;
+            List<String> preferences = new ArrayList<>();
+            int preferenceCount = size > 1 ? random.nextInt(maxPreferences + 1) : 0;
+            // Bounded, since a small cluster may not offer enough distinct names
+            for (int attempt = 0; attempt < 4 * preferenceCount && preferences.size() < preferenceCount; attempt++) {
+                double u = random.nextDouble();
+                int other;
+                if (u < RECIPROCAL_CHANCE && !listedBy.get(a).isEmpty()) {
+                    other = start + listedBy.get(a).get(random.nextInt(listedBy.get(a).size()));
+                } else if (u < CLUSTER_CHANCE && count > 1) {
+                    other = start + random.nextInt(count);
+                } else {
+                    other = random.nextInt(size);
+                }
+                String name = "S" + other;
+                if (other == i || preferences.contains(name)) {
+                    continue;
+                }
+                preferences.add(name);
+                if (other >= start && other < end) {
+                    listedBy.get(other - start).add(a);
+                }
+            }
+            students.add(new UniversityStudent("S" + i, ages[a], genders[a], years[a], studentMajors[a], gpas[a],
+                    preferences, internships.get(a)));
+        }
+        return students;
+    }
+
+    /**
+     * Joins a list the way the parser splits it; an empty list is written as "None".
+     *
+     * @param values the values
+     * @return the comma separated values
+     */
+    private static String joined(List<String> values) {
+        return values.isEmpty() ? "None" : String.join(", ", values);
+    }
+
+    /**
+     * Zipf distribution over ranks 0..n-1: rank k is drawn with probability
+     * proportional to 1 / (k + 1)^skew.
+     */
+    private static final class ZipfDistribution {
+        /** Cumulative probability of each rank; the last entry is 1 */
+        private final double[] cumulative;
+
+        /**
+         * Tabulates the distribution.
+         *
+         * @param n    the number of ranks
+         * @param skew the exponent; 0 gives a uniform distribution
+         */
+        ZipfDistribution(int n, double skew) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1 / Math.pow(k + 1, skew);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+            cumulative[n - 1] = 1;
+        }
+
+        /**
+         * Draws a rank.
+         *
+         * @param random the random sequence
+         * @return a rank in 0..n-1
+         */
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,489 @@
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Versioned binary snapshot of a parsed cohort and its built graph, so a
+ * process can start without parsing the text file or computing connection
+ * strengths. A snapshot holds a string table, one column per student
+ * attribute (strings stored as string table ids), the current roommates, and
+ * the graph's compressed-sparse-row adjacency. It is loaded by memory-mapping
+ * the file and bulk-copying the columns.
+ *
+ * <p>A roommate is saved only when it belongs to the cohort; a student whose
+ * roommate is outside the saved students is loaded without a roommate.
+ *
+ * <p>Layout, big-endian: a 40-byte header (magic, format version, source file
+ * size and modification time, payload length, CRC32 of the payload) followed
+ * by the payload. A checksum mismatch or truncated file is reported as
+ * corrupt; a snapshot whose recorded source size or modification time no
+ * longer matches the source file is stale. Snapshots are limited to 2 GB, the
+ * largest region one mapping can cover.
+ *
+ * @author LonghornNetwork Team
+ */
+public final class CohortSnapshot {
+    /** Version of the layout written by this class */
+    public static final int FORMAT_VERSION = 1;
+
+    /** File signature, "LHNS" */
+    private static final int MAGIC = 0x4C484E53;
+    /** Size of the fixed header in bytes */
+    private static final int HEADER_BYTES = 40;
+    /** String table id of a null string */
+    private static final int NULL_STRING = -1;
+    /** Fingerprint value recorded when there is no source file */
+    private static final long NO_SOURCE = -1;
+
+    /** Students in graph id order */
+    private final List<UniversityStudent> students;
+    /** The graph's adjacency */
+    private final CompactStudentGraph graph;
+    /** Size of the source file when the snapshot was written */
+    private final long sourceSize;
+    /** Modification time of the source file when the snapshot was written, in milliseconds */
+    private final long sourceModified;
+
+    /**
+     * Constructs a loaded snapshot.
+     *
+     * @param students       students in graph id order
+     * @param graph          the graph's adjacency
+     * @param sourceSize     the recorded source file size
+     * @param sourceModified the recorded source modification time
+     */
+    private CohortSnapshot(List<UniversityStudent> students, CompactStudentGraph graph,
+                           long sourceSize, long sourceModified) {
+        this.students = students;
+        this.graph = graph;
+        this.sourceSize = sourceSize;
+        this.sourceModified = sourceModified;
+    }
+
+    /**
+     * Returns a graph for the source file, loading it from the snapshot when
+     * the snapshot is present, intact and current. Otherwise the source is
+     * parsed, the graph is built, and a new snapshot is written. A source with
+     * any malformed record is rejected rather than snapshotted, since a
+     * snapshot of the well-formed part would later load as if it were the
+     * whole cohort.
+     *
+     * @param source   the student text file
+     * @param snapshot the snapshot file
+     * @return the graph
+     * @throws IOException if the source cannot be read or has a malformed
+     *                     record, or the snapshot cannot be written
+     */
+    public static StudentGraph loadOrBuild(Path source, Path snapshot) throws IOException {
+        if (Files.exists(snapshot)) {
+            try {
+                CohortSnapshot loaded = load(snapshot);
+                if (loaded.isCurrentFor(source)) {
+                    return loaded.toStudentGraph();
+                }
+            } catch (IOException e) {
+                // A corrupt or outdated snapshot is simply rebuilt
+            }
+        }
+        ParseResult parsed = DataParser.parseStudentsParallel(source.toString(),
+                Runtime.getRuntime().availableProcessors());
+        if (parsed.hasErrors()) {
+            throw new IOException("Not snapshotting " + source + ": " + parsed.getErrors().size()
+                    + " malformed record(s), first at " + parsed.getErrors().get(0));
+        }
+        StudentGraph graph = new StudentGraph(parsed.getStudents());
+        write(graph, snapshot, source);
+        return graph;
+    }
+
+    /**
+     * Writes a snapshot of a graph and its students. The file is written
+     * under a temporary name and then moved into place, so readers never see
+     * a partial snapshot.
+     *
+     * @param graph    the graph to save
+     * @param snapshot the snapshot file to create or replace
+     * @param source   the text file the graph was built from, recorded for
+     *                 staleness checks, or null
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if an edge weight exceeds {@link CompactStudentGraph#MAX_WEIGHT}
+     */
+    public static void write(StudentGraph graph, Path snapshot, Path source) throws IOException {
+        CompactStudentGraph compact = graph.toCompact();
+        int n = compact.size();
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<UniversityStudent, Integer> ids = new IdentityHashMap<>();
+        for (int id = 0; id < n; id++) {
+            ids.put(compact.student(id), id);
+        }
+
+        Path absolute = snapshot.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_BYTES);
+                CRC32 crc = new CRC32();
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+                writePayload(out, compact, strings, ids);
+                out.flush();
+                long payloadLength = channel.position() - HEADER_BYTES;
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION);
+                header.putLong(source == null ? NO_SOURCE : Files.size(source));
+                header.putLong(source == null ? NO_SOURCE : Files.getLastModifiedTime(source).toMillis());
+                header.putLong(payloadLength).putLong(crc.getValue());
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(false);
+            }
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads a snapshot by memory-mapping it. Every student object is recreated
+     * during the load, while the adjacency stays in compact form until
+     * {@link #toStudentGraph()} builds the graph's adjacency lists from it.
+     *
+     * @param snapshot the snapshot file
+     * @return the loaded snapshot
+     * @throws IOException if the file cannot be read, is not a snapshot, has
+     *                     another format version, or is corrupt
+     */
+    public static CohortSnapshot load(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Corrupt snapshot " + snapshot + ": truncated header");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + snapshot + " is too large to map: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a cohort snapshot: " + snapshot);
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + snapshot
+                        + "; expected " + FORMAT_VERSION);
+            }
+            long sourceSize = buffer.getLong();
+            long sourceModified = buffer.getLong();
+            long payloadLength = buffer.getLong();
+            long checksum = buffer.getLong();
+            if (payloadLength != size - HEADER_BYTES) {
+                throw new IOException("Corrupt snapshot " + snapshot + ": expected " + payloadLength
+                        + " payload bytes, found " + (size - HEADER_BYTES));
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != checksum) {
+                throw new IOException("Corrupt snapshot " + snapshot + ": checksum mismatch");
+            }
+
+            try {
+                return readPayload(buffer, sourceSize, sourceModified);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+                throw new IOException("Corrupt snapshot " + snapshot + ": inconsistent payload", e);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the source file still has the size and modification
+     * time recorded when this snapshot was written.
+     *
+     * @param source the student text file
+     * @return false if the snapshot is stale, the source is missing, or no source was recorded
+     * @throws IOException if the source's attributes cannot be read
+     */
+    public boolean isCurrentFor(Path source) throws IOException {
+        return sourceSize != NO_SOURCE && Files.exists(source)
+                && Files.size(source) == sourceSize
+                && Files.getLastModifiedTime(source).toMillis() == sourceModified;
+    }
+
+    /**
+     * Returns the students in graph id order.
+     *
+     * @return an unmodifiable list of the students
+     */
+    public List<UniversityStudent> getStudents() {
+        return students;
+    }
+
+    /**
+     * Returns the saved adjacency as a compact graph, without building a
+     * {@link StudentGraph}.
+     *
+     * @return the compact graph
+     */
+    public CompactStudentGraph getCompactGraph() {
+        return graph;
+    }
+
+    /**
+     * Recreates the saved graph without computing any connection strength.
+     * Each call builds a new adjacency list for every student; callers that
+     * only search the graph can use {@link #getCompactGraph()} instead.
+     *
+     * @return a new graph whose {@link StudentGraph#toCompact()} is the loaded compact graph
+     */
+    public StudentGraph toStudentGraph() {
+        return StudentGraph.fromCompact(graph);
+    }
+
+    /**
+     * Writes the string table, student columns and adjacency.
+     *
+     * @param out     the payload stream
+     * @param compact the graph
+     * @param strings receives the string table
+     * @param ids     student to id lookup
+     * @throws IOException if writing fails
+     */
+    private static void writePayload(DataOutputStream out, CompactStudentGraph compact,
+                                     Map<String, Integer> strings, Map<UniversityStudent, Integer> ids)
+            throws IOException {
+        int n = compact.size();
+        int[] names = new int[n];
+        int[] genders = new int[n];
+        int[] majors = new int[n];
+        int[] roommates = new int[n];
+        int[][] preferences = new int[n][];
+        int[][] internships = new int[n][];
+        for (int id = 0; id < n; id++) {
+            UniversityStudent student = compact.student(id);
+            names[id] = stringId(strings, student.name);
+            genders[id] = stringId(strings, student.gender);
+            majors[id] = stringId(strings, student.major);
+            Integer roommate = student.getRoommate() == null ? null : ids.get(student.getRoommate());
+            roommates[id] = roommate == null ? -1 : roommate;
+            preferences[id] = stringIds(strings, student.roommatePreferences);
+            internships[id] = stringIds(strings, student.previousInternships);
+        }
+
+        out.writeInt(strings.size());
+        for (String s : strings.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        out.writeInt(n);
+        writeInts(out, names);
+        for (int id = 0; id < n; id++) {
+            out.writeInt(compact.student(id).age);
+        }
+        writeInts(out, genders);
+        for (int id = 0; id < n; id++) {
+            out.writeInt(compact.student(id).year);
+        }
+        writeInts(out, majors);
+        for (int id = 0; id < n; id++) {
+            out.writeDouble(compact.student(id).gpa);
+        }
+        writeInts(out, roommates);
+        writeRagged(out, preferences);
+        writeRagged(out, internships);
+
+        out.writeInt(compact.edgeCount());
+        for (int id = 0; id <= n; id++) {
+            out.writeInt(id < n ? compact.edgeStart(id) : compact.edgeCount());
+        }
+        for (int e = 0; e < compact.edgeCount(); e++) {
+            out.writeInt(compact.target(e));
+        }
+        for (int e = 0; e < compact.edgeCount(); e++) {
+            out.writeByte(compact.weight(e));
+        }
+    }
+
+    /**
+     * Reads the payload that follows the header.
+     *
+     * @param buffer         the mapped file, positioned at the payload
+     * @param sourceSize     the recorded source file size
+     * @param sourceModified the recorded source modification time
+     * @return the loaded snapshot
+     */
+    private static CohortSnapshot readPayload(ByteBuffer buffer, long sourceSize, long sourceModified) {
+        String[] strings = new String[buffer.getInt()];
+        byte[] scratch = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int n = buffer.getInt();
+        int[] names = readInts(buffer, n);
+        int[] ages = readInts(buffer, n);
+        int[] genders = readInts(buffer, n);
+        int[] years = readInts(buffer, n);
+        int[] majors = readInts(buffer, n);
+        double[] gpas = new double[n];
+        buffer.asDoubleBuffer().get(gpas);
+        buffer.position(buffer.position() + Double.BYTES * n);
+        int[] roommates = readInts(buffer, n);
+        int[] preferenceOffsets = readInts(buffer, n + 1);
+        int[] preferences = readInts(buffer, preferenceOffsets[n]);
+        int[] internshipOffsets = readInts(buffer, n + 1);
+        int[] internships = readInts(buffer, internshipOffsets[n]);
+
+        UniversityStudent[] students = new UniversityStudent[n];
+        for (int id = 0; id < n; id++) {
+            students[id] = new UniversityStudent(string(strings, names[id]), ages[id], string(strings, genders[id]),
+                    years[id], string(strings, majors[id]), gpas[id],
+                    strings(strings, preferences, preferenceOffsets[id], preferenceOffsets[id + 1]),
+                    strings(strings, internships, internshipOffsets[id], internshipOffsets[id + 1]));
+        }
+        for (int id = 0; id < n; id++) {
+            if (roommates[id] >= 0) {
+                students[id].setRoommate(students[roommates[id]]);
+            }
+        }
+
+        int edges = buffer.getInt();
+        int[] offsets = readInts(buffer, n + 1);
+        int[] targets = readInts(buffer, edges);
+        byte[] weights = new byte[edges];
+        buffer.get(weights);
+        if (offsets[n] != edges) {
+            throw new IndexOutOfBoundsException("Edge offsets end at " + offsets[n] + ", not " + edges);
+        }
+        for (int target : targets) {
+            Objects.checkIndex(target, n);
+        }
+
+        CompactStudentGraph graph = new CompactStudentGraph(students, offsets, targets, weights);
+        return new CohortSnapshot(Collections.unmodifiableList(Arrays.asList(students)), graph,
+                sourceSize, sourceModified);
+    }
+
+    /**
+     * Returns the string table id of a string, adding it if needed.
+     *
+     * @param strings the string table
+     * @param s       the string, may be null
+     * @return the id, or {@link #NULL_STRING}
+     */
+    private static int stringId(Map<String, Integer> strings, String s) {
+        if (s == null) {
+            return NULL_STRING;
+        }
+        Integer id = strings.get(s);
+        if (id == null) {
+            id = strings.size();
+            strings.put(s, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the string table ids of a list of strings.
+     *
+     * @param strings the string table
+     * @param values  the strings
+     * @return their ids, in order
+     */
+    private static int[] stringIds(Map<String, Integer> strings, List<String> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = stringId(strings, values.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Looks up a string table id.
+     *
+     * @param strings the string table
+     * @param id      the id, or {@link #NULL_STRING}
+     * @return the string, or null
+     */
+    private static String string(String[] strings, int id) {
+        return id == NULL_STRING ? null : strings[id];
+    }
+
+    /**
+     * Looks up a run of string table ids.
+     *
+     * @param strings the string table
+     * @param ids     the id column
+     * @param from    the first id position
+     * @param to      the end position, exclusive
+     * @return the strings, in order
+     */
+    private static List<String> strings(String[] strings, int[] ids, int from, int to) {
+        List<String> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(string(strings, ids[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Writes an int column.
+     *
+     * @param out    the payload stream
+     * @param values the column
+     * @throws IOException if writing fails
+     */
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Writes a list-valued column as n + 1 offsets followed by the concatenated values.
+     *
+     * @param out  the payload stream
+     * @param rows the value list of each student
+     * @throws IOException if writing fails
+     */
+    private static void writeRagged(DataOutputStream out, int[][] rows) throws IOException {
+        int offset = 0;
+        out.writeInt(offset);
+        for (int[] row : rows) {
+            offset += row.length;
+            out.writeInt(offset);
+        }
+        for (int[] row : rows) {
+            writeInts(out, row);
+        }
+    }
+
+    /**
+     * Bulk-copies an int column out of the mapped file.
+     *
+     * @param buffer the mapped file, positioned at the column
+     * @param count  the number of values
+     * @return the column
+     */
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + Integer.BYTES * count);
+        return values;
+    }
+}
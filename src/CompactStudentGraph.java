@@ -0,0 +1,238 @@
+import java.util.*;
+
+/**
+ * Immutable, compressed-sparse-row (CSR) representation of a {@link StudentGraph}.
+ * Students are addressed by dense int ids; the neighbors of student {@code id}
+ * occupy edge slots {@code edgeStart(id)} (inclusive) to {@code edgeEnd(id)}
+ * (exclusive) of the {@code targets} and {@code weights} arrays. Algorithms can
+ * iterate these slots directly without allocating, while {@link #getAllNodes()}
+ * and {@link #getNeighbors(UniversityStudent)} provide the familiar object view.
+ *
+ * @author LonghornNetwork Team
+ */
+public class CompactStudentGraph {
+    /** Largest connection strength that fits in the unsigned byte weight column */
+    public static final int MAX_WEIGHT = 0xFF;
+
+    /** Students indexed by id */
+    private final UniversityStudent[] students;
+    /** Student to id lookup */
+    private final Map<UniversityStudent, Integer> ids;
+    /** Edge slot range of each student; length is size() + 1 */
+    private final int[] offsets;
+    /** Neighbor id of each edge slot */
+    private final int[] targets;
+    /** Connection strength of each edge slot, stored unsigned */
+    private final byte[] weights;
+    /** Case-folded internship company to alumni index */
+    private final CompanyIndex companyIndex;
+
+    /**
+     * Builds a compact copy of the given graph. Ids follow the graph's node
+     * iteration order and each neighbor list keeps its original order.
+     *
+     * @param graph the graph to compact
+     * @throws IllegalArgumentException if an edge weight exceeds {@link #MAX_WEIGHT}
+     */
+    public CompactStudentGraph(StudentGraph graph) {
+        Set<UniversityStudent> nodes = graph.getAllNodes();
+        students = nodes.toArray(new UniversityStudent[0]);
+        ids = new HashMap<>(students.length * 2);
+        for (int id = 0; id < students.length; id++) {
+            ids.put(students[id], id);
+        }
+
+        offsets = new int[students.length + 1];
+        for (int id = 0; id < students.length; id++) {
+            offsets[id + 1] = offsets[id] + graph.getNeighbors(students[id]).size();
+        }
+        targets = new int[offsets[students.length]];
+        weights = new byte[offsets[students.length]];
+        for (int id = 0; id < students.length; id++) {
+            int slot = offsets[id];
+            for (StudentGraph.Edge edge : graph.getNeighbors(students[id])) {
+                if (edge.weight > MAX_WEIGHT) {
+                    throw new IllegalArgumentException("Connection strength " + edge.weight + " between "
+                            + students[id].name + " and " + edge.neighbor.name + " exceeds " + MAX_WEIGHT);
+                }
+                targets[slot] = ids.get(edge.neighbor);
+                weights[slot] = (byte) edge.weight;
+                slot++;
+            }
+        }
+        companyIndex = new CompanyIndex(students);
+    }
+
+    /**
+     * Wraps CSR arrays that were built elsewhere, such as a loaded snapshot.
+     * The arrays are retained, not copied.
+     *
+     * @param students students indexed by id
+     * @param offsets  edge slot range of each student; length is students.length + 1
+     * @param targets  neighbor id of each edge slot
+     * @param weights  connection strength of each edge slot, stored unsigned
+     */
+    CompactStudentGraph(UniversityStudent[] students, int[] offsets, int[] targets, byte[] weights) {
+        this.students = students;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        ids = new HashMap<>(students.length * 2);
+        for (int id = 0; id < students.length; id++) {
+            ids.put(students[id], id);
+        }
+        companyIndex = new CompanyIndex(students);
+    }
+
+    /**
+     * Returns the number of students in the graph.
+     *
+     * @return the node count; valid ids are {@code 0} to {@code size() - 1}
+     */
+    public int size() {
+        return students.length;
+    }
+
+    /**
+     * Returns the number of directed edge slots, i.e. twice the number of
+     * undirected connections.
+     *
+     * @return the edge slot count
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the student with the given id.
+     *
+     * @param id a student id
+     * @return the student
+     */
+    public UniversityStudent student(int id) {
+        return students[id];
+    }
+
+    /**
+     * Returns the id of the given student.
+     *
+     * @param student the student to look up
+     * @return the student's id, or -1 if the student is not in the graph
+     */
+    public int idOf(UniversityStudent student) {
+        Integer id = ids.get(student);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the first edge slot of a student.
+     *
+     * @param id a student id
+     * @return the first edge slot (inclusive)
+     */
+    public int edgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Returns the end of a student's edge slots.
+     *
+     * @param id a student id
+     * @return the last edge slot (exclusive)
+     */
+    public int edgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Returns the neighbor id stored in an edge slot.
+     *
+     * @param edge an edge slot
+     * @return the neighbor's id
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the connection strength stored in an edge slot.
+     *
+     * @param edge an edge slot
+     * @return the connection strength (1 to {@link #MAX_WEIGHT})
+     */
+    public int weight(int edge) {
+        return weights[edge] & 0xFF;
+    }
+
+    /**
+     * Returns the index of internship companies to student ids.
+     *
+     * @return the company index built with this graph
+     */
+    CompanyIndex companyIndex() {
+        return companyIndex;
+    }
+
+    /**
+     * Returns all student nodes present in the graph as an unmodifiable view.
+     *
+     * @return a set containing all UniversityStudent nodes, in id order
+     */
+    public Set<UniversityStudent> getAllNodes() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<UniversityStudent> iterator() {
+                return Collections.unmodifiableList(Arrays.asList(students)).iterator();
+            }
+
+            @Override
+            public int size() {
+                return students.length;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return ids.containsKey(o);
+            }
+        };
+    }
+
+    /**
+     * Returns the neighbor list for the given student as an unmodifiable view.
+     * Edge objects are created on access, so hot loops should iterate the
+     * edge slots instead.
+     *
+     * @param student the student whose neighbors are requested
+     * @return a list of Edge objects, or null if the student is not in the graph
+     */
+    public List<StudentGraph.Edge> getNeighbors(UniversityStudent student) {
+        int id = idOf(student);
+        if (id < 0) {
+            return null;
+        }
+        int start = offsets[id];
+        int end = offsets[id + 1];
+        return new AbstractList<>() {
+            @Override
+            public StudentGraph.Edge get(int index) {
+                Objects.checkIndex(index, end - start);
+                return new StudentGraph.Edge(students[targets[start + index]], weights[start + index] & 0xFF);
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    /**
+     * Prints the graph.
+     */
+    public void displayGraph() {
+        System.out.println("\nStudent Graph:");
+        for (UniversityStudent student : students) {
+            System.out.println(student.name + " -> " + getNeighbors(student));
+        }
+    }
+}
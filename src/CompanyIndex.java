@@ -0,0 +1,117 @@
+import java.util.*;
+
+/**
+ * Case-insensitive index from internship company to the ids of the students
+ * who interned there. Company names are case-folded the same way
+ * {@link String#equalsIgnoreCase(String)} compares them, each folded name gets
+ * a dense company id, and each id maps to the sorted ids of its alumni. A
+ * bitset over the whole graph is only built for the company being queried,
+ * since one per company would take companies times students bits.
+ *
+ * @author LonghornNetwork Team
+ */
+final class CompanyIndex {
+    /** Company id of each folded company name */
+    private final Map<String, Integer> companyIds = new HashMap<>();
+    /** Alumni of each company id, as ascending student ids */
+    private final int[][] alumni;
+
+    /**
+     * Builds the index for students whose ids are their array positions.
+     *
+     * @param students the students, indexed by id
+     */
+    CompanyIndex(UniversityStudent[] students) {
+        // First pass: company id of every internship, in student order, and alumni counts
+        int[] internshipCompanies = new int[16];
+        int internshipCount = 0;
+        int[] counts = new int[16];
+        for (UniversityStudent student : students) {
+            for (String internship : student.previousInternships) {
+                int company = companyIds.computeIfAbsent(fold(internship), k -> companyIds.size());
+                if (company == counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                }
+                if (internshipCount == internshipCompanies.length) {
+                    internshipCompanies = Arrays.copyOf(internshipCompanies, internshipCount * 2);
+                }
+                internshipCompanies[internshipCount++] = company;
+                counts[company]++;
+            }
+        }
+
+        // Second pass: ids ascend, so each list comes out sorted; a repeated company is kept once
+        alumni = new int[companyIds.size()][];
+        for (int company = 0; company < alumni.length; company++) {
+            alumni[company] = new int[counts[company]];
+        }
+        int[] filled = new int[alumni.length];
+        int next = 0;
+        for (int id = 0; id < students.length; id++) {
+            for (int k = students[id].previousInternships.size(); k > 0; k--) {
+                int company = internshipCompanies[next++];
+                int[] ids = alumni[company];
+                if (filled[company] == 0 || ids[filled[company] - 1] != id) {
+                    ids[filled[company]++] = id;
+                }
+            }
+        }
+        for (int company = 0; company < alumni.length; company++) {
+            if (filled[company] < alumni[company].length) {
+                alumni[company] = Arrays.copyOf(alumni[company], filled[company]);
+            }
+        }
+    }
+
+    /**
+     * Returns the company id for a company name, ignoring case.
+     *
+     * @param company the company name, may be null
+     * @return the company id, or -1 if no student interned there
+     */
+    int companyId(String company) {
+        if (company == null) {
+            return -1;
+        }
+        Integer id = companyIds.get(fold(company));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the ids of the students who interned at a company as a new
+     * bitset, which the caller may keep or modify.
+     *
+     * @param companyId a company id from {@link #companyId(String)}
+     * @return the alumni bitset
+     */
+    BitSet alumni(int companyId) {
+        int[] ids = alumni[companyId];
+        BitSet result = new BitSet(ids.length == 0 ? 0 : ids[ids.length - 1] + 1);
+        for (int id : ids) {
+            result.set(id);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct companies in the index.
+     *
+     * @return the company count
+     */
+    int companyCount() {
+        return alumni.length;
+    }
+
+    /**
+     * Case-folds a name so that two names fold to the same string exactly when
+     * {@link String#equalsIgnoreCase(String)} considers them equal.
+     *
+     * @param name the name to fold
+     * @return the folded name
+     */
+    static String fold(String name) {
+        StringBuilder folded = new StringBuilder(name.length());
+        name.codePoints().forEach(cp -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp))));
+        return folded.toString();
+    }
+}
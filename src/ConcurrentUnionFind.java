@@ -0,0 +1,66 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free union-find over int ids. Parent links are updated with
+ * compare-and-set only, roots are always linked under the smaller id, and
+ * {@link #find(int)} halves paths opportunistically, so any number of threads
+ * may call {@link #find(int)} and {@link #union(int, int)} concurrently.
+ *
+ * @author LonghornNetwork Team
+ */
+final class ConcurrentUnionFind {
+    /** Parent of each id; roots point to themselves */
+    private final AtomicIntegerArray parent;
+
+    /**
+     * Creates {@code n} singleton sets.
+     *
+     * @param n the number of ids
+     */
+    ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Returns the current root of an id's set.
+     *
+     * @param id the id
+     * @return the root id
+     */
+    int find(int id) {
+        int p = parent.get(id);
+        while (p != id) {
+            int grandparent = parent.get(p);
+            // Path halving; losing the race only means the path stays longer
+            parent.compareAndSet(id, p, grandparent);
+            id = grandparent;
+            p = parent.get(id);
+        }
+        return id;
+    }
+
+    /**
+     * Merges the sets containing two ids.
+     *
+     * @param a an id
+     * @param b another id
+     * @return true if this call merged two different sets, false if they were already one
+     */
+    boolean union(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return false;
+            }
+            int child = Math.max(rootA, rootB);
+            int root = Math.min(rootA, rootB);
+            if (parent.compareAndSet(child, child, root)) {
+                return true;
+            }
+        }
+    }
+}
@@ -1,25 +1,25 @@
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for parsing student data from input files.
  * Reads student information from a formatted text file and creates
- * UniversityStudent objects.
+ * UniversityStudent objects, either all at once or streamed record by record.
  * 
  * @author LonghornNetwork Team
  */
 public class DataParser {
-    /** Array of expected field names for student records */
-    private static final String[] recordKeys = {
-        "Name",
-        "Age",
-        "Gender",
-        "Year",
-        "Major",
-        "GPA",
-        "RoommatePreferences",
-        "PreviousInternships"
-    };
+    /** Chunks created per worker so that work stealing can even out skew */
+    private static final int CHUNKS_PER_WORKER = 4;
+    /** Smallest chunk worth handing to a worker, in bytes */
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
 
     /**
      * Parses student information from a file and returns a list of UniversityStudent objects.
@@ -31,120 +31,188 @@ public class DataParser {
      */
     public static List<UniversityStudent> parseStudents(String filename) throws IOException {
         List<UniversityStudent> result = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.equals("Student:")) {
-                    String studentName = null;
-                    int studentAge = Integer.MIN_VALUE;
-                    String studentGender = null;
-                    int studentYear = Integer.MIN_VALUE;
-                    String studentMajor = null;
-                    double studentGpa = Double.MIN_VALUE;
-                    ArrayList<String> prefs = null;
-                    ArrayList<String> internships = null;
-                    
-                    for (int i = 0; i < recordKeys.length; i++) {
-                        String keyValueLine = reader.readLine().trim();
-                        String[] parts = keyValueLine.split(":", 2);
-                        
-                        if (parts.length <= 1) {
-                            System.err.println("Parsing error: Incorrect format in line: '" + keyValueLine + "'. Expected format 'Name: <value>'.");
-                            return result;
-                        }
-                        
-                        String fieldName = parts[0].trim();
-                        String fieldValue = parts[1].trim();
-
-                        if (!fieldName.equals(recordKeys[i])) {
-                            System.err.println("Parsing error: Missing required field '" + recordKeys[i] + "' in student entry for " + studentName + ".");
-                            return result;
-                        }
-
-                        switch (fieldName) {
-                            case "Name":
-                                studentName = fieldValue;
-                                break;
-
-                            case "Age":
-                                try {
-                                    studentAge = Integer.parseInt(fieldValue);
-                                } catch (NumberFormatException e) {
-                                    System.err.println("Number format error: Invalid number format for age: '" + fieldValue + "' in student entry for " + studentName + ".");
-                                    return result;
-                                }
-                                break;
-
-                            case "Gender":
-                                studentGender = fieldValue;
-                                break;
-
-                            case "Year":
-                                try {
-                                    studentYear = Integer.parseInt(fieldValue);
-                                } catch (NumberFormatException e) {
-                                    System.err.println("Number format error: Invalid number format for year: '" + fieldValue + "' in student entry for " + studentName + ".");
-                                    return result;
-                                }
-                                break;
-
-                            case "Major":
-                                studentMajor = fieldValue;
-                                break;
+        streamStudents(filename, result::add);
+        return result;
+    }
 
-                            case "GPA":
-                                try {
-                                    studentGpa = Double.parseDouble(fieldValue);
-                                } catch (NumberFormatException e) {
-                                    System.err.println("Number format error: Invalid number format for GPA: '" + fieldValue + "' in student entry for " + studentName + ".");
-                                    return result;
-                                }
-                                break;
+    /**
+     * Parses a UTF-8 student file and hands each student to a consumer as soon
+     * as its record has been read, so that filtering or aggregating a large
+     * file never holds every record at once. To build a graph while reading,
+     * pass an {@link IncrementalGraphBuilder}, as {@link #streamGraph(String)}
+     * does; it connects each student only to the earlier students that share
+     * an attribute with it. Parsing stops at the first malformed record, which
+     * is reported on standard error exactly as by {@link #parseStudents(String)}.
+     *
+     * @param filename The path to the input file containing student data
+     * @param consumer Receives the students in file order
+     * @return true if the whole file was parsed, false if a malformed record stopped it
+     * @throws IOException If there is an error reading the file
+     */
+    public static boolean streamStudents(String filename, Consumer<UniversityStudent> consumer) throws IOException {
+        try (StudentRecordReader reader = new StudentRecordReader(filename)) {
+            UniversityStudent student;
+            while ((student = reader.next()) != null) {
+                consumer.accept(student);
+            }
+            return !reader.failed();
+        }
+    }
 
-                            case "RoommatePreferences":
-                                prefs = parseCommaSeparatedString(fieldValue);
-                                break;
+    /**
+     * Parses a UTF-8 student file and builds its graph as the records are
+     * read, without first collecting the students into a list. The graph is
+     * the same as {@code new StudentGraph(parseStudents(filename))}; like
+     * {@link #parseStudents(String)}, a malformed record ends the file and the
+     * students before it are kept.
+     *
+     * @param filename The path to the input file containing student data
+     * @return The graph of the parsed students
+     * @throws IOException If there is an error reading the file
+     */
+    public static StudentGraph streamGraph(String filename) throws IOException {
+        IncrementalGraphBuilder builder = new IncrementalGraphBuilder();
+        streamStudents(filename, builder);
+        return builder.build();
+    }
 
-                            case "PreviousInternships":
-                                internships = parseCommaSeparatedString(fieldValue);
-                                break;
+    /**
+     * Parses a UTF-8 student file in parallel and collects every malformed
+     * record instead of stopping at the first. The file is cut into chunks at
+     * "Student:" lines, the chunks are parsed on a fork-join pool, and the
+     * results are joined in file order, so the students and errors are the
+     * same for any parallelism. Each error carries its line number in the
+     * whole file and the message the sequential parser would print. A
+     * "Student:" line where a field is expected reports the missing field and
+     * then starts the next record.
+     *
+     * @param filename    The path to the input file containing student data
+     * @param parallelism The number of worker threads (at least 1)
+     * @return The well-formed students and the errors, both in file order
+     * @throws IOException If there is an error reading the file
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public static ParseResult parseStudentsParallel(String filename, int parallelism) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunks = (int) Math.max(1, Math.min((long) parallelism * CHUNKS_PER_WORKER, size / MIN_CHUNK_BYTES));
+            long[] starts = new long[chunks + 1];
+            for (int c = 1; c < chunks; c++) {
+                starts[c] = StudentRecordReader.nextRecordStart(channel, Math.max(starts[c - 1], size * c / chunks), size);
+            }
+            starts[chunks] = size;
+
+            ChunkResult[] results = new ChunkResult[chunks];
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> IntStream.range(0, chunks).parallel()
+                        .forEach(c -> results[c] = parseChunk(channel, starts[c], starts[c + 1]))).join();
+            } finally {
+                pool.shutdown();
+            }
 
-                            default:
-                                System.err.println("Missing case");
-                                break;
-                        }
-                    }
-                    UniversityStudent student = new UniversityStudent(studentName, studentAge, studentGender, 
-                            studentYear, studentMajor, studentGpa, prefs, internships);
-                    result.add(student);
+            // Chunk line numbers are local; shift them by the lines of the chunks before
+            List<UniversityStudent> students = new ArrayList<>();
+            List<ParseError> errors = new ArrayList<>();
+            int lineBase = 0;
+            for (ChunkResult result : results) {
+                if (result.failure() != null) {
+                    throw result.failure();
                 }
+                students.addAll(result.students());
+                for (ParseError error : result.errors()) {
+                    errors.add(new ParseError(lineBase + error.getLineNumber(), error.getMessage()));
+                }
+                lineBase += result.lineCount();
             }
-        } catch (IOException e) {
-            throw e;
+            return new ParseResult(students, errors);
         }
+    }
 
-        return result;
+    /**
+     * Parses one chunk of a file in error-collecting mode.
+     *
+     * @param channel the open file
+     * @param start   the first byte of the chunk, at a "Student:" line or the start of the file
+     * @param end     the end of the chunk, exclusive
+     * @return the chunk's students, errors with chunk-relative line numbers, and line count
+     */
+    private static ChunkResult parseChunk(FileChannel channel, long start, long end) {
+        List<UniversityStudent> students = new ArrayList<>();
+        try (StudentRecordReader reader = new StudentRecordReader(channel, start, end)) {
+            UniversityStudent student;
+            while ((student = reader.next()) != null) {
+                students.add(student);
+            }
+            return new ChunkResult(students, reader.errors(), reader.lineCount(), null);
+        } catch (IOException e) {
+            return new ChunkResult(students, List.of(), 0, e);
+        }
     }
 
     /**
-     * Parses a comma-separated string into a list of trimmed strings.
-     * Handles the special case where the input is "None" by returning an empty list.
+     * Returns a lazy, ordered stream of the students in a UTF-8 student file.
+     * Records are read as the stream is consumed, and the stream ends at the
+     * first malformed record. The stream must be closed to release the file.
+     * Passing an {@link IncrementalGraphBuilder} to {@code forEach} builds the
+     * graph of the streamed students.
      *
-     * @param in the comma-separated string to parse
-     * @return an ArrayList of trimmed string values, or an empty list if input is "None"
+     * @param filename The path to the input file containing student data
+     * @return A stream of the parsed students
+     * @throws IOException If the file cannot be opened
+     * @throws UncheckedIOException from stream operations if the file cannot be read
      */
-    private static ArrayList<String> parseCommaSeparatedString(String input) {
-        ArrayList<String> resultList = new ArrayList<>();
+    public static Stream<UniversityStudent> studentStream(String filename) throws IOException {
+        StudentRecordReader reader = new StudentRecordReader(filename);
+        Iterator<UniversityStudent> records = new Iterator<>() {
+            /** Record read ahead by hasNext, or null */
+            private UniversityStudent pending;
+
+            @Override
+            public boolean hasNext() {
+                if (pending == null) {
+                    try {
+                        pending = reader.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return pending != null;
+            }
 
-        if (input.equals("None")) {
-            return resultList;
-        }
+            @Override
+            public UniversityStudent next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                UniversityStudent student = pending;
+                pending = null;
+                return student;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(records,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
 
-        String[] tokens = input.split(",");
-        for (String token : tokens) {
-            resultList.add(token.trim());
-        }
-        return resultList;
+    /**
+     * Students, errors and line count of one parsed chunk.
+     *
+     * @param students  the students, in file order
+     * @param errors    the malformed records, line numbers relative to the chunk
+     * @param lineCount the number of lines in the chunk
+     * @param failure   the read failure, or null
+     */
+    private record ChunkResult(List<UniversityStudent> students, List<ParseError> errors, int lineCount,
+                               IOException failure) {
     }
 }
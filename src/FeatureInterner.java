@@ -0,0 +1,40 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe dictionary that assigns dense int ids to attribute strings such
+ * as majors and company names. Equal strings always map to the same id for the
+ * lifetime of the process, so ids can be compared with {@code ==} in place of
+ * {@link String#equals(Object)}.
+ *
+ * @author LonghornNetwork Team
+ */
+final class FeatureInterner {
+    /** Id returned for absent (null) values; never equal to an interned id */
+    static final int NO_ID = -1;
+
+    /** Ids assigned so far */
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    /** Next id to assign */
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private FeatureInterner() {
+    }
+
+    /**
+     * Returns the id of the given value, assigning a new one on first use.
+     *
+     * @param value the string to intern, may be null
+     * @return the value's id, or {@link #NO_ID} for null
+     */
+    static int idOf(String value) {
+        if (value == null) {
+            return NO_ID;
+        }
+        Integer id = ids.get(value);
+        return id != null ? id : ids.computeIfAbsent(value, k -> nextId.getAndIncrement());
+    }
+}
@@ -1,9 +1,11 @@
-import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 /**
  * Thread class for simulating friend request interactions between students.
  * Implements Runnable to allow concurrent friend request processing.
- * Ensures thread-safe operations when updating student friend lists.
+ * Each request records a mutual friendship in a {@link FriendshipStore}.
+ * Nothing blocks while holding a monitor, so tasks can run on virtual
+ * threads without pinning their carriers (see {@link InteractionExecutor}).
  * 
  * @author LonghornNetwork Team
  */
@@ -12,35 +14,77 @@ public class FriendRequestThread implements Runnable {
     private final UniversityStudent sender;
     /** The student receiving the friend request */
     private final UniversityStudent receiver;
-    /** Semaphore for thread-safe friend request output */
-    private static final Semaphore outputSemaphore = new Semaphore(1);
+    /** Store recording the friendship */
+    private final FriendshipStore friendships;
+    /** Receives the request line, or null for no output */
+    private final Consumer<String> log;
     
     /**
      * Constructs a FriendRequestThread with the specified sender and receiver.
-     * 
+     * The request is printed to standard output and the friendship recorded
+     * in a new store of this thread's own, reachable through
+     * {@link #getFriendships()}.
+     *
      * @param sender The UniversityStudent sending the friend request
      * @param receiver The UniversityStudent receiving the friend request
+     * @deprecated Friendships recorded this way are never seen by other
+     *             requests; use
+     *             {@link #FriendRequestThread(UniversityStudent, UniversityStudent, FriendshipStore)}
+     *             with a store owned by the caller.
      */
+    @Deprecated
     public FriendRequestThread(UniversityStudent sender, UniversityStudent receiver) {
+        this(sender, receiver, new FriendshipStore());
+    }
+
+    /**
+     * Constructs a FriendRequestThread that records the friendship in the
+     * given store and prints the request to standard output.
+     *
+     * @param sender The UniversityStudent sending the friend request
+     * @param receiver The UniversityStudent receiving the friend request
+     * @param friendships The store recording the friendship
+     */
+    public FriendRequestThread(UniversityStudent sender, UniversityStudent receiver, FriendshipStore friendships) {
+        this(sender, receiver, friendships, System.out::println);
+    }
+
+    /**
+     * Constructs a FriendRequestThread that records the friendship in the
+     * given store and reports to a log sink.
+     *
+     * @param sender The UniversityStudent sending the friend request
+     * @param receiver The UniversityStudent receiving the friend request
+     * @param friendships The store recording the friendship
+     * @param log Receives the request line, or null for no output
+     */
+    public FriendRequestThread(UniversityStudent sender, UniversityStudent receiver, FriendshipStore friendships,
+                               Consumer<String> log) {
         this.sender = sender;
         this.receiver = receiver;
+        this.friendships = friendships;
+        this.log = log;
+    }
+
+    /**
+     * Returns the store that records the friendship.
+     *
+     * @return the friendship store
+     */
+    public FriendshipStore getFriendships() {
+        return friendships;
     }
 
     /**
      * Executes the friend request operation in a separate thread.
-     * Adds the sender to the receiver's friend list and vice versa,
-     * ensuring thread-safe updates to shared resources.
+     * Adds the sender to the receiver's friend list and vice versa, then
+     * reports the request; each line is passed whole in a single call.
      */
     @Override
     public void run() {
-        try {
-            outputSemaphore.acquire();
-            System.out.println("FriendRequest (Thread-safe): " + sender.name + " sent a friend request to " + receiver.name);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("FriendRequest interrupted: " + e.getMessage());
-        } finally {
-            outputSemaphore.release();
+        friendships.addFriendship(sender, receiver);
+        if (log != null) {
+            log.accept("FriendRequest (Thread-safe): " + sender.name + " sent a friend request to " + receiver.name);
         }
     }
 }
@@ -0,0 +1,535 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe friendship graph keyed by {@link StudentDirectory} id.
+ * Friendship is mutual: a request from either student creates it, and
+ * repeated or crossing requests change nothing. Each student's friends are
+ * kept in an open-addressing set of primitive ids. Students are spread over
+ * lock stripes by id. Both directions of a friendship are inserted while the
+ * write locks of both students' stripes are held, taken in stripe index
+ * order, so no reader sees a friendship in one direction only.
+ * {@link #addFriendships(int[], int[])} takes each lock once per batch rather
+ * than once per request: a small batch is grouped by the pair of stripes each
+ * request touches, and a batch with at least as many requests as stripes
+ * takes every stripe it touches at once, in index order. There is no
+ * process-wide instance: each owner creates its store and passes it to
+ * {@link FriendRequestThread}, giving it the directory of a
+ * {@link MessageStore} when the two must agree on ids.
+ *
+ * @author LonghornNetwork Team
+ */
+public class FriendshipStore {
+    /** Number of lock stripes used by default */
+    public static final int DEFAULT_STRIPES = 64;
+
+    /** Directory assigning student ids */
+    private final StudentDirectory directory;
+    /** Stripe of id i is stripes[i % stripes.length] */
+    private final Stripe[] stripes;
+    /** Number of distinct friendships */
+    private final AtomicLong friendshipCount = new AtomicLong();
+
+    /**
+     * Constructs an empty store with its own directory and the default stripe count.
+     */
+    public FriendshipStore() {
+        this(new StudentDirectory(), DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param directory   the directory assigning student ids
+     * @param stripeCount the number of lock stripes (at least 1)
+     * @throws IllegalArgumentException if stripeCount is less than 1
+     */
+    public FriendshipStore(StudentDirectory directory, int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be at least 1: " + stripeCount);
+        }
+        this.directory = directory;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the directory assigning student ids.
+     *
+     * @return the directory
+     */
+    public StudentDirectory getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Records a friendship between two students.
+     *
+     * @param a one student
+     * @param b the other student
+     * @return true if the friendship is new, false if it existed or a and b are the same student
+     */
+    public boolean addFriendship(UniversityStudent a, UniversityStudent b) {
+        return addFriendship(directory.idOf(a), directory.idOf(b));
+    }
+
+    /**
+     * Records a friendship between two student ids.
+     *
+     * @param a one student id
+     * @param b the other student id
+     * @return true if the friendship is new, false if it existed or a equals b
+     * @throws IllegalArgumentException if an id is negative
+     */
+    public boolean addFriendship(int a, int b) {
+        checkIds(a, b);
+        if (a == b) {
+            return false;
+        }
+        int first = Math.min(a % stripes.length, b % stripes.length);
+        int second = Math.max(a % stripes.length, b % stripes.length);
+        boolean created;
+        lockStripes(first, second);
+        try {
+            created = insert(a, b);
+        } finally {
+            unlockStripes(first, second);
+        }
+        if (created) {
+            friendshipCount.incrementAndGet();
+        }
+        return created;
+    }
+
+    /**
+     * Records a batch of friendships, taking locks once per batch rather than
+     * once per request. Request i is between senders[i] and receivers[i]; self
+     * requests are ignored. A batch with fewer requests than stripes becomes
+     * visible one stripe pair at a time, each friendship in both directions
+     * at once. A larger batch would touch most pairs, so it takes the locks of
+     * every stripe it touches once, in index order, and becomes visible all
+     * at once.
+     *
+     * @param senders   the requesting student ids
+     * @param receivers the requested student ids
+     * @return the number of friendships that are new
+     * @throws IllegalArgumentException if the arrays differ in length or an id is negative
+     */
+    public int addFriendships(int[] senders, int[] receivers) {
+        if (senders.length != receivers.length) {
+            throw new IllegalArgumentException("Batch arrays differ in length: "
+                    + senders.length + ", " + receivers.length);
+        }
+        // Two stable counting sorts order the requests by (lower stripe, higher stripe)
+        int[] pending = new int[senders.length];
+        int requests = 0;
+        int[] starts = new int[stripes.length + 1];
+        for (int i = 0; i < senders.length; i++) {
+            checkIds(senders[i], receivers[i]);
+            if (senders[i] != receivers[i]) {
+                starts[higherStripe(senders[i], receivers[i]) + 1]++;
+                pending[requests++] = i;
+            }
+        }
+        if (requests >= stripes.length) {
+            return addLargeBatch(senders, receivers, pending, requests);
+        }
+        int[] byHigher = new int[requests];
+        sortByStripe(pending, byHigher, requests, starts, senders, receivers, true);
+        Arrays.fill(starts, 0);
+        for (int r = 0; r < requests; r++) {
+            starts[lowerStripe(senders[byHigher[r]], receivers[byHigher[r]]) + 1]++;
+        }
+        int[] sorted = pending;
+        sortByStripe(byHigher, sorted, requests, starts, senders, receivers, false);
+
+        int created = 0;
+        for (int r = 0; r < requests; ) {
+            int lower = lowerStripe(senders[sorted[r]], receivers[sorted[r]]);
+            int higher = higherStripe(senders[sorted[r]], receivers[sorted[r]]);
+            lockStripes(lower, higher);
+            try {
+                for (; r < requests; r++) {
+                    int a = senders[sorted[r]];
+                    int b = receivers[sorted[r]];
+                    if (lowerStripe(a, b) != lower || higherStripe(a, b) != higher) {
+                        break;
+                    }
+                    if (insert(a, b)) {
+                        created++;
+                    }
+                }
+            } finally {
+                unlockStripes(lower, higher);
+            }
+        }
+        friendshipCount.addAndGet(created);
+        return created;
+    }
+
+    /**
+     * Records a large batch under the write locks of every stripe it touches,
+     * taken once each in index order like the one or two locks of a single
+     * request, so the two can never deadlock.
+     *
+     * @param senders   the requesting student ids
+     * @param receivers the requested student ids
+     * @param pending   the indexes of the requests that are not self requests
+     * @param requests  the number of such requests
+     * @return the number of friendships that are new
+     */
+    private int addLargeBatch(int[] senders, int[] receivers, int[] pending, int requests) {
+        boolean[] touched = new boolean[stripes.length];
+        for (int r = 0; r < requests; r++) {
+            touched[senders[pending[r]] % stripes.length] = true;
+            touched[receivers[pending[r]] % stripes.length] = true;
+        }
+        int locked = 0;
+        int created = 0;
+        try {
+            for (; locked < stripes.length; locked++) {
+                if (touched[locked]) {
+                    stripes[locked].lock.writeLock().lock();
+                }
+            }
+            for (int r = 0; r < requests; r++) {
+                if (insert(senders[pending[r]], receivers[pending[r]])) {
+                    created++;
+                }
+            }
+        } finally {
+            while (--locked >= 0) {
+                if (touched[locked]) {
+                    stripes[locked].lock.writeLock().unlock();
+                }
+            }
+        }
+        friendshipCount.addAndGet(created);
+        return created;
+    }
+
+    /**
+     * Returns whether two students are friends.
+     *
+     * @param a one student
+     * @param b the other student
+     * @return true if a friendship between them was recorded
+     */
+    public boolean areFriends(UniversityStudent a, UniversityStudent b) {
+        int first = directory.find(a);
+        int second = directory.find(b);
+        return first != StudentDirectory.NO_ID && second != StudentDirectory.NO_ID && areFriends(first, second);
+    }
+
+    /**
+     * Returns whether two student ids are friends.
+     *
+     * @param a one student id
+     * @param b the other student id
+     * @return true if a friendship between them was recorded
+     * @throws IllegalArgumentException if an id is negative
+     */
+    public boolean areFriends(int a, int b) {
+        checkIds(a, b);
+        Stripe stripe = stripes[a % stripes.length];
+        Lock lock = stripe.lock.readLock();
+        lock.lock();
+        try {
+            IntSet set = stripe.existingSet(a / stripes.length);
+            return set != null && set.contains(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the friends of a student id.
+     *
+     * @param id a student id
+     * @return the friend ids in ascending order
+     * @throws IllegalArgumentException if the id is negative
+     */
+    public int[] friendsOf(int id) {
+        checkIds(id, id);
+        Stripe stripe = stripes[id % stripes.length];
+        Lock lock = stripe.lock.readLock();
+        int[] friends;
+        lock.lock();
+        try {
+            IntSet set = stripe.existingSet(id / stripes.length);
+            friends = set == null ? new int[0] : set.toArray();
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(friends);
+        return friends;
+    }
+
+    /**
+     * Returns the friends of a student.
+     *
+     * @param student the student
+     * @return the friends, in ascending id order
+     */
+    public List<UniversityStudent> getFriends(UniversityStudent student) {
+        int id = directory.find(student);
+        if (id == StudentDirectory.NO_ID) {
+            return Collections.emptyList();
+        }
+        List<UniversityStudent> friends = new ArrayList<>();
+        for (int friend : friendsOf(id)) {
+            friends.add(directory.student(friend));
+        }
+        return friends;
+    }
+
+    /**
+     * Returns the number of distinct friendships recorded.
+     *
+     * @return the friendship count
+     */
+    public long friendshipCount() {
+        return friendshipCount.get();
+    }
+
+    /**
+     * Adds both directions of a friendship. The write locks of both students'
+     * stripes must be held, so the two sets always agree.
+     *
+     * @param a one student id
+     * @param b the other student id, different from a
+     * @return true if the friendship was not yet recorded
+     */
+    private boolean insert(int a, int b) {
+        boolean created = stripes[a % stripes.length].setFor(a / stripes.length).add(b);
+        stripes[b % stripes.length].setFor(b / stripes.length).add(a);
+        return created;
+    }
+
+    /**
+     * Takes the write locks of one or two stripes, the lower index first so
+     * that concurrent requests can never deadlock.
+     *
+     * @param lower  the lower stripe index
+     * @param higher the higher stripe index, equal to lower for a single stripe
+     */
+    private void lockStripes(int lower, int higher) {
+        stripes[lower].lock.writeLock().lock();
+        if (higher != lower) {
+            stripes[higher].lock.writeLock().lock();
+        }
+    }
+
+    /**
+     * Releases the write locks taken by {@link #lockStripes(int, int)}.
+     *
+     * @param lower  the lower stripe index
+     * @param higher the higher stripe index, equal to lower for a single stripe
+     */
+    private void unlockStripes(int lower, int higher) {
+        if (higher != lower) {
+            stripes[higher].lock.writeLock().unlock();
+        }
+        stripes[lower].lock.writeLock().unlock();
+    }
+
+    /**
+     * Returns the lower of the stripe indexes of two students.
+     *
+     * @param a one student id
+     * @param b the other student id
+     * @return the lower stripe index
+     */
+    private int lowerStripe(int a, int b) {
+        return Math.min(a % stripes.length, b % stripes.length);
+    }
+
+    /**
+     * Returns the higher of the stripe indexes of two students.
+     *
+     * @param a one student id
+     * @param b the other student id
+     * @return the higher stripe index
+     */
+    private int higherStripe(int a, int b) {
+        return Math.max(a % stripes.length, b % stripes.length);
+    }
+
+    /**
+     * Stable counting sort of request indexes by one of their stripe indexes.
+     *
+     * @param from      the request indexes to sort
+     * @param to        receives the sorted request indexes
+     * @param count     the number of request indexes
+     * @param starts    the number of requests per stripe, shifted up by one
+     *                  slot; overwritten
+     * @param senders   the requesting student ids
+     * @param receivers the requested student ids
+     * @param higher    true to sort by the higher stripe, false by the lower
+     */
+    private void sortByStripe(int[] from, int[] to, int count, int[] starts, int[] senders, int[] receivers,
+                              boolean higher) {
+        for (int s = 0; s + 1 < starts.length; s++) {
+            starts[s + 1] += starts[s];
+        }
+        for (int r = 0; r < count; r++) {
+            int i = from[r];
+            int stripe = higher ? higherStripe(senders[i], receivers[i]) : lowerStripe(senders[i], receivers[i]);
+            to[starts[stripe]++] = i;
+        }
+    }
+
+    /**
+     * Rejects negative ids.
+     *
+     * @param a one id
+     * @param b the other id
+     * @throws IllegalArgumentException if an id is negative
+     */
+    private static void checkIds(int a, int b) {
+        if (a < 0 || b < 0) {
+            throw new IllegalArgumentException("Student ids must be non-negative: " + a + ", " + b);
+        }
+    }
+
+    /**
+     * The friend sets of the students in one stripe, guarded by its lock.
+     */
+    private static final class Stripe {
+        /** Guards sets and their contents */
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        /** Friend set of each student of the stripe, by id / stripe count */
+        private IntSet[] sets = new IntSet[8];
+
+        /**
+         * Returns a student's set, creating it if needed. The write lock must be held.
+         *
+         * @param slot the student's position within the stripe
+         * @return the set
+         */
+        IntSet setFor(int slot) {
+            if (slot >= sets.length) {
+                sets = Arrays.copyOf(sets, Math.max(slot + 1, sets.length * 2));
+            }
+            IntSet set = sets[slot];
+            if (set == null) {
+                set = new IntSet();
+                sets[slot] = set;
+            }
+            return set;
+        }
+
+        /**
+         * Returns a student's set if it exists. A lock must be held.
+         *
+         * @param slot the student's position within the stripe
+         * @return the set, or null if the student has no friends
+         */
+        IntSet existingSet(int slot) {
+            return slot < sets.length ? sets[slot] : null;
+        }
+    }
+
+    /**
+     * Open-addressing hash set of non-negative ints with linear probing.
+     */
+    private static final class IntSet {
+        /** Marks an empty slot; stored values are id + 1 */
+        private static final int EMPTY = 0;
+
+        /** Slots, a power of two in length */
+        private int[] table = new int[4];
+        /** Number of values */
+        private int size;
+
+        /**
+         * Adds a value.
+         *
+         * @param value a non-negative int
+         * @return true if the value was not present
+         */
+        boolean add(int value) {
+            if (2 * (size + 1) > table.length) {
+                grow();
+            }
+            int stored = value + 1;
+            int mask = table.length - 1;
+            for (int i = mix(stored) & mask; ; i = (i + 1) & mask) {
+                if (table[i] == stored) {
+                    return false;
+                }
+                if (table[i] == EMPTY) {
+                    table[i] = stored;
+                    size++;
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Returns whether a value is present.
+         *
+         * @param value a non-negative int
+         * @return true if present
+         */
+        boolean contains(int value) {
+            int stored = value + 1;
+            int mask = table.length - 1;
+            for (int i = mix(stored) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+                if (table[i] == stored) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Copies the values out.
+         *
+         * @return the values in table order
+         */
+        int[] toArray() {
+            int[] values = new int[size];
+            int n = 0;
+            for (int stored : table) {
+                if (stored != EMPTY) {
+                    values[n++] = stored - 1;
+                }
+            }
+            return values;
+        }
+
+        /**
+         * Doubles the table and reinserts every value.
+         */
+        private void grow() {
+            int[] old = table;
+            table = new int[old.length * 2];
+            int mask = table.length - 1;
+            for (int stored : old) {
+                if (stored != EMPTY) {
+                    int i = mix(stored) & mask;
+                    while (table[i] != EMPTY) {
+                        i = (i + 1) & mask;
+                    }
+                    table[i] = stored;
+                }
+            }
+        }
+
+        /**
+         * Spreads consecutive ids over the table.
+         *
+         * @param stored a stored value
+         * @return the hash
+         */
+        private static int mix(int stored) {
+            int h = stored * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
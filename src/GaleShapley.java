@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Implements the Gale-Shapley stable matching algorithm for roommate assignment.
@@ -18,106 +19,233 @@ public class GaleShapley {
      * Assigns roommates to students using the Gale-Shapley stable matching algorithm.
      * Each student is matched with their highest-priority preferred roommate if
      * mutually possible. Students without preferences or with incomplete preference
-     * lists may remain unpaired.
+     * lists may remain unpaired. The pairings formed are printed.
      * 
      * @param students The list of UniversityStudent objects to match
      */
     public static void assignRoommates(List<UniversityStudent> students) {
-        Map<UniversityStudent, UniversityStudent> pairings = new HashMap<>();
-        Map<UniversityStudent, Integer> proposalIndices = new HashMap<>();
-        Map<String, UniversityStudent> nameMap = new HashMap<>();
-
-        // Initialize maps
-        for (UniversityStudent student : students) {
-            nameMap.put(student.name, student);
-            proposalIndices.put(student, 0);
+        match(students, System.out::println).apply();
+    }
+
+    /**
+     * Computes a Gale-Shapley matching without printing or changing any student.
+     * Existing roommates are taken as the starting pairs.
+     *
+     * @param students The list of UniversityStudent objects to match
+     * @return the matching, to be applied with {@link RoommateMatching#apply()} if wanted
+     */
+    public static RoommateMatching match(List<UniversityStudent> students) {
+        return match(students, null);
+    }
+
+    /**
+     * Computes a Gale-Shapley matching without changing any student, reporting
+     * the pairs formed in this round to a log sink.
+     *
+     * @param students The list of UniversityStudent objects to match
+     * @param log      receives the report line by line, or null for no report
+     * @return the matching, to be applied with {@link RoommateMatching#apply()} if wanted
+     */
+    public static RoommateMatching match(List<UniversityStudent> students, Consumer<String> log) {
+        RoommatePreferenceTable table = new RoommatePreferenceTable(students);
+        boolean[] pairedThisRound = new boolean[table.size()];
+        int[] partner = solve(table, pairedThisRound);
+        report(students, partner, pairedThisRound, log);
+        return new RoommateMatching(students, partner, true, RoommateMatching.countBlockingPairs(table, partner));
+    }
+
+    /**
+     * Computes the matching for the students of a preference table, starting
+     * from their existing roommates.
+     *
+     * @param table           the preference and rank tables
+     * @param pairedThisRound set for students whose final pairing was formed by this call
+     * @return the partner id of each student
+     */
+    static int[] solve(RoommatePreferenceTable table, boolean[] pairedThisRound) {
+        int n = table.size();
+        int[] partner = new int[n];
+        int[] partnerRank = new int[n];
+        Map<UniversityStudent, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            ids.put(table.student(i), i);
+        }
+        for (int i = 0; i < n; i++) {
+            UniversityStudent roommate = table.student(i).getRoommate();
+            Integer id = roommate == null ? null : ids.get(roommate);
+            partner[i] = roommate == null ? RoommateMatching.UNPAIRED : id == null ? RoommateMatching.EXTERNAL : id;
+            partnerRank[i] = roommate == null ? -1 : table.rankOfName(i, roommate.name);
+        }
+        match(table, partner, partnerRank, pairedThisRound);
+        return partner;
+    }
+
+    /**
+     * Writes the pairs formed in this round to a log sink, in list order.
+     *
+     * @param students        the matched students, indexed by id
+     * @param partner         the partner id of each student
+     * @param pairedThisRound set for students whose pairing was formed in this round
+     * @param log             receives the report line by line, or null for no report
+     */
+    static void report(List<UniversityStudent> students, int[] partner, boolean[] pairedThisRound,
+                       Consumer<String> log) {
+        if (log == null) {
+            return;
+        }
+        log.accept("\nRoommate Pairings (Gale-Shapely):");
+        for (int i = 0; i < partner.length; i++) {
+            if (pairedThisRound[i] && partner[i] >= i) {
+                log.accept(students.get(i).name + " paired with " + students.get(partner[i]).name);
+            }
         }
+    }
+
+    /**
+     * Runs the proposal loop on int-indexed state. Each proposal costs O(1):
+     * acceptability and preference comparisons are rank-table lookups instead
+     * of {@code contains}/{@code indexOf} scans over name lists.
+     *
+     * @param table           the preference and rank tables
+     * @param partner         current partner of each student on entry ({@link RoommateMatching#UNPAIRED} none,
+     *                        {@link RoommateMatching#EXTERNAL} for a roommate outside the list);
+     *                        updated in place
+     * @param partnerRank     rank of each student's current partner in its own
+     *                        list, -1 if unranked; updated in place
+     * @param pairedThisRound set for students whose final pairing was formed by this call
+     */
+    static void match(RoommatePreferenceTable table, int[] partner, int[] partnerRank, boolean[] pairedThisRound) {
+        int n = table.size();
+        int[] nextProposal = new int[n];
 
         // Initialize queue with students who have preferences
-        Queue<UniversityStudent> unpairedQueue = new LinkedList<>();
-        for (UniversityStudent student : students) {
-            if (!student.roommatePreferences.isEmpty()) {
-                unpairedQueue.offer(student);
+        IntQueue unpairedQueue = new IntQueue(n);
+        for (int i = 0; i < n; i++) {
+            if (table.preferences(i).length > 0) {
+                unpairedQueue.offer(i);
             }
         }
 
         // Main matching loop
         while (!unpairedQueue.isEmpty()) {
-            UniversityStudent proposer = unpairedQueue.poll();
-            
-            // Skip if already paired
-            if (proposer.getRoommate() != null) {
-                continue;
-            }
-
-            int currentIndex = proposalIndices.get(proposer);
-            if (currentIndex >= proposer.roommatePreferences.size()) {
-                continue;
-            }
+            int proposer = unpairedQueue.poll();
+            int[] prefs = table.preferences(proposer);
 
-            String targetName = proposer.roommatePreferences.get(currentIndex);
-            proposalIndices.put(proposer, currentIndex + 1);
-            UniversityStudent target = nameMap.get(targetName);
-            
-            // Handle invalid preference name
-            if (target == null) {
-                if (proposalIndices.get(proposer) < proposer.roommatePreferences.size()) {
-                    unpairedQueue.offer(proposer);
-                }
+            // Skip if already paired or out of candidates
+            if (partner[proposer] != RoommateMatching.UNPAIRED || nextProposal[proposer] >= prefs.length) {
                 continue;
             }
+            int target = prefs[nextProposal[proposer]++];
+            boolean hasMoreCandidates = nextProposal[proposer] < prefs.length;
 
-            // Check if target has proposer in their preferences
-            if (!target.roommatePreferences.contains(proposer.name)) {
-                if (proposalIndices.get(proposer) < proposer.roommatePreferences.size()) {
+            // Invalid preference name, or target does not list the proposer
+            int proposerRank = target == RoommatePreferenceTable.UNKNOWN ? -1 : table.rank(target, proposer);
+            if (proposerRank < 0) {
+                if (hasMoreCandidates) {
                     unpairedQueue.offer(proposer);
                 }
                 continue;
             }
 
-            // Handle pairing logic
-            if (target.getRoommate() == null) {
+            int existing = partner[target];
+            if (existing == RoommateMatching.UNPAIRED) {
                 // Target is free, create pairing
-                pairings.put(proposer, target);
-                pairings.put(target, proposer);
-                target.setRoommate(proposer);
-                proposer.setRoommate(target);
-            } else {
-                // Target is already paired, check if proposer is preferred
-                UniversityStudent existingRoommate = target.getRoommate();
-                int existingIndex = target.roommatePreferences.indexOf(existingRoommate.name);
-                int proposerIndex = target.roommatePreferences.indexOf(proposer.name);
-                
-                if (proposerIndex < existingIndex) {
-                    // Proposer is preferred, break existing pairing
-                    pairings.remove(existingRoommate);
-                    unpairedQueue.offer(existingRoommate);
-                    existingRoommate.setRoommate(null);
-
-                    // Create new pairing
-                    pairings.put(proposer, target);
-                    pairings.put(target, proposer);
-                    target.setRoommate(proposer);
-                    proposer.setRoommate(target);
-                } else {
-                    // Existing roommate is preferred, keep trying
-                    if (proposalIndices.get(proposer) < proposer.roommatePreferences.size()) {
-                        unpairedQueue.offer(proposer);
-                    }
+                pair(table, partner, partnerRank, pairedThisRound, proposer, target, proposerRank);
+            } else if (proposerRank < partnerRank[target]) {
+                // Proposer is preferred, break existing pairing
+                if (existing != RoommateMatching.EXTERNAL) {
+                    partner[existing] = RoommateMatching.UNPAIRED;
+                    partnerRank[existing] = -1;
+                    pairedThisRound[existing] = false;
+                    unpairedQueue.offer(existing);
                 }
+                pair(table, partner, partnerRank, pairedThisRound, proposer, target, proposerRank);
+            } else if (hasMoreCandidates) {
+                // Existing roommate is preferred, keep trying
+                unpairedQueue.offer(proposer);
             }
         }
+    }
 
-        // Print results
-        System.out.println("\nRoommate Pairings (Gale-Shapely):");
-        Set<UniversityStudent> alreadyPrinted = new HashSet<>();
-        for (UniversityStudent student : pairings.keySet()) {
-            UniversityStudent partner = pairings.get(student);
-            if (!alreadyPrinted.contains(student) && !alreadyPrinted.contains(partner)) {
-                System.out.println(student.name + " paired with " + partner.name);
-                alreadyPrinted.add(student);
-                alreadyPrinted.add(partner);
+    /**
+     * Records a new pairing in the int-indexed state.
+     *
+     * @param table           the preference and rank tables
+     * @param partner         partner array to update
+     * @param partnerRank     partner rank array to update
+     * @param pairedThisRound pairing flags to update
+     * @param proposer        the proposing student
+     * @param target          the accepting student
+     * @param proposerRank    the proposer's rank in the target's list
+     */
+    private static void pair(RoommatePreferenceTable table, int[] partner, int[] partnerRank,
+                             boolean[] pairedThisRound, int proposer, int target, int proposerRank) {
+        partner[proposer] = target;
+        partner[target] = proposer;
+        partnerRank[proposer] = table.rank(proposer, target);
+        partnerRank[target] = proposerRank;
+        pairedThisRound[proposer] = true;
+        pairedThisRound[target] = true;
+    }
+
+    /**
+     * Growable FIFO ring of primitive ids. A displaced student may be queued
+     * again while an earlier entry is still waiting, so the ring doubles when
+     * full instead of being bounded by the student count.
+     */
+    private static final class IntQueue {
+        /** Queued ids; the length is a power of two */
+        private int[] ring;
+        /** Position of the next id to poll */
+        private int head;
+        /** Number of queued ids */
+        private int size;
+
+        /**
+         * Constructs an empty queue.
+         *
+         * @param expected the number of ids expected at once
+         */
+        IntQueue(int expected) {
+            ring = new int[Integer.highestOneBit(Math.max(expected, 8) - 1) << 1];
+        }
+
+        /**
+         * Returns whether the queue is empty.
+         *
+         * @return true if no id is queued
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Adds an id at the tail.
+         *
+         * @param id the id to queue
+         */
+        void offer(int id) {
+            if (size == ring.length) {
+                int[] grown = new int[ring.length * 2];
+                int firstPart = ring.length - head;
+                System.arraycopy(ring, head, grown, 0, firstPart);
+                System.arraycopy(ring, 0, grown, firstPart, head);
+                ring = grown;
+                head = 0;
             }
+            ring[(head + size++) & (ring.length - 1)] = id;
+        }
+
+        /**
+         * Removes the id at the head. The queue must not be empty.
+         *
+         * @return the oldest queued id
+         */
+        int poll() {
+            int id = ring[head];
+            head = (head + 1) & (ring.length - 1);
+            size--;
+            return id;
         }
     }
 }
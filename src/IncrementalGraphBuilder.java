@@ -0,0 +1,77 @@
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Builds a {@link StudentGraph} while students arrive one at a time, for
+ * example from {@link DataParser#streamStudents(String, Consumer)}. Each
+ * student is appended to the attribute buckets of a growing
+ * {@link StudentAttributeIndex} and connected only to the earlier students
+ * that share a bucket with it, so loading stays as cheap as the indexed
+ * build instead of comparing every new student with every earlier one. The
+ * result is the same graph as {@code new StudentGraph(students)} over the
+ * students in arrival order.
+ *
+ * @author LonghornNetwork Team
+ */
+public class IncrementalGraphBuilder implements Consumer<UniversityStudent> {
+    /** Buckets of the students added so far */
+    private final StudentAttributeIndex.Growing index = new StudentAttributeIndex.Growing();
+    /** Students by index position */
+    private final List<UniversityStudent> students = new ArrayList<>();
+    /** Graph being built, or null once it has been handed out */
+    private StudentGraph graph = StudentGraph.withoutEdges(Collections.emptyList());
+
+    /**
+     * Adds a student and its edges to every earlier student with a positive
+     * connection strength. A student that was already added is ignored.
+     *
+     * @param student the next student
+     * @throws IllegalStateException if {@link #build()} has already been called
+     */
+    @Override
+    public void accept(UniversityStudent student) {
+        if (graph == null) {
+            throw new IllegalStateException("The graph has already been built");
+        }
+        if (!graph.addNode(student)) {
+            return;
+        }
+        int count = index.add(student);
+        int[] candidates = index.candidates();
+        // Ascending candidates keep both neighbor lists in insertion order, as the constructor does
+        for (int k = 0; k < count; k++) {
+            UniversityStudent earlier = students.get(candidates[k]);
+            int weight = earlier.calculateConnectionStrength(student);
+            if (weight > 0) {
+                graph.addEdge(earlier, student, weight);
+            }
+        }
+        students.add(student);
+    }
+
+    /**
+     * Returns the number of students added.
+     *
+     * @return the student count
+     */
+    public int size() {
+        return students.size();
+    }
+
+    /**
+     * Returns the graph of every student added. The builder cannot be used
+     * afterwards, since changes made to the graph would not be seen by its
+     * buckets.
+     *
+     * @return the graph
+     * @throws IllegalStateException if the graph has already been built
+     */
+    public StudentGraph build() {
+        if (graph == null) {
+            throw new IllegalStateException("The graph has already been built");
+        }
+        StudentGraph result = graph;
+        graph = null;
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int ids keyed by doubles, with O(log n) decrease-key.
+ * Each id appears at most once, so Dijkstra-style searches never accumulate
+ * stale entries. All storage is allocated up front and reused across
+ * searches; {@link #clear()} only touches the ids still queued.
+ *
+ * @author LonghornNetwork Team
+ */
+final class IndexedMinHeap {
+    /** Ids in heap order */
+    private final int[] heap;
+    /** Keys in heap order */
+    private final double[] keys;
+    /** Heap slot of each id, or -1 if not queued */
+    private final int[] position;
+    /** Number of queued ids */
+    private int size;
+
+    /**
+     * Constructs an empty heap for ids {@code 0} to {@code capacity - 1}.
+     *
+     * @param capacity the number of distinct ids
+     */
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new double[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Returns whether the heap has no queued ids.
+     *
+     * @return true if empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of queued ids.
+     *
+     * @return the heap size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether an id is currently queued.
+     *
+     * @param id the id to check
+     * @return true if queued
+     */
+    boolean contains(int id) {
+        return position[id] >= 0;
+    }
+
+    /**
+     * Returns the smallest queued key without removing it.
+     *
+     * @return the minimum key; undefined if the heap is empty
+     */
+    double peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Queues an id, or lowers its key if it is already queued with a larger key.
+     *
+     * @param id  the id to queue
+     * @param key the new key
+     */
+    void insertOrDecrease(int id, double key) {
+        int slot = position[id];
+        if (slot < 0) {
+            slot = size++;
+        } else if (key >= keys[slot]) {
+            return;
+        }
+        siftUp(slot, id, key);
+    }
+
+    /**
+     * Removes and returns the id with the smallest key.
+     *
+     * @return the removed id
+     */
+    int poll() {
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(0, heap[size], keys[size]);
+        }
+        return min;
+    }
+
+    /**
+     * Removes all queued ids.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves an entry up from the given slot until the heap order holds.
+     *
+     * @param slot the starting slot
+     * @param id   the id being placed
+     * @param key  the id's key
+     */
+    private void siftUp(int slot, int id, double key) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            place(slot, heap[parent], keys[parent]);
+            slot = parent;
+        }
+        place(slot, id, key);
+    }
+
+    /**
+     * Moves an entry down from the given slot until the heap order holds.
+     *
+     * @param slot the starting slot
+     * @param id   the id being placed
+     * @param key  the id's key
+     */
+    private void siftDown(int slot, int id, double key) {
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            place(slot, heap[child], keys[child]);
+            slot = child;
+        }
+        place(slot, id, key);
+    }
+
+    /**
+     * Stores an entry in a slot and records its position.
+     *
+     * @param slot the slot
+     * @param id   the id
+     * @param key  the key
+     */
+    private void place(int slot, int id, double key) {
+        heap[slot] = id;
+        keys[slot] = key;
+        position[id] = slot;
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs simulated interactions such as {@link ChatThread} and
+ * {@link FriendRequestThread} tasks within a scope: every task submitted
+ * through the executor has finished once {@link #close()} returns, and the
+ * first task failure is rethrown from it.
+ *
+ * <p>In {@link Mode#VIRTUAL} each task gets its own virtual thread, so
+ * hundreds of thousands of interactions that block on I/O or sleep can be in
+ * flight at once. Virtual threads need Java 21; the executor is looked up
+ * reflectively, and on older runtimes this mode falls back to a pool of
+ * {@link #FALLBACK_POOL_SIZE} platform threads, which {@link #isVirtual()}
+ * reports.
+ *
+ * @author LonghornNetwork Team
+ */
+public final class InteractionExecutor implements AutoCloseable {
+    /**
+     * Kinds of threads that run the interactions.
+     */
+    public enum Mode {
+        /** A fixed pool of platform threads */
+        PLATFORM,
+        /** One virtual thread per task */
+        VIRTUAL
+    }
+
+    /** Platform threads used by VIRTUAL mode on runtimes without virtual threads */
+    public static final int FALLBACK_POOL_SIZE = 256;
+
+    /** The underlying executor */
+    private final ExecutorService executor;
+    /** Whether tasks run on virtual threads */
+    private final boolean virtual;
+    /** First exception thrown by a task, or null */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Constructs an executor.
+     *
+     * @param mode            the kind of threads to use
+     * @param platformThreads the pool size in PLATFORM mode (at least 1)
+     * @throws IllegalArgumentException if platformThreads is less than 1
+     */
+    public InteractionExecutor(Mode mode, int platformThreads) {
+        if (platformThreads < 1) {
+            throw new IllegalArgumentException("Platform threads must be at least 1: " + platformThreads);
+        }
+        ExecutorService virtualExecutor = mode == Mode.VIRTUAL ? newVirtualThreadPerTaskExecutor() : null;
+        this.virtual = virtualExecutor != null;
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+        } else if (mode == Mode.VIRTUAL) {
+            this.executor = Executors.newFixedThreadPool(FALLBACK_POOL_SIZE);
+        } else {
+            this.executor = Executors.newFixedThreadPool(platformThreads);
+        }
+    }
+
+    /**
+     * Returns whether this runtime supports virtual threads.
+     *
+     * @return true on Java 21 and later
+     */
+    public static boolean virtualThreadsAvailable() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        if (executor == null) {
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+
+    /**
+     * Returns whether tasks run on virtual threads.
+     *
+     * @return false in PLATFORM mode and in the VIRTUAL fallback
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Starts a task. An exception thrown by the task is kept and rethrown by
+     * {@link #close()}.
+     *
+     * @param task the task to run
+     * @throws RejectedExecutionException if the executor is shut down
+     */
+    public void submit(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        });
+    }
+
+    /**
+     * Stops accepting tasks and waits a bounded time for the submitted ones.
+     * Tasks still running when the time is up are interrupted.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if every task finished in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(timeout, unit)) {
+            return true;
+        }
+        executor.shutdownNow();
+        return false;
+    }
+
+    /**
+     * Stops accepting tasks and waits for all submitted tasks to finish. If
+     * the waiting thread is interrupted, the tasks are interrupted too and
+     * waited for, and the interrupt status is restored.
+     *
+     * @throws CompletionException wrapping the first exception thrown by a task
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.DAYS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                if (!interrupted) {
+                    executor.shutdownNow();
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new CompletionException("An interaction failed", t);
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor if the runtime has one.
+     *
+     * @return the executor, or null before Java 21
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the two {@link InteractionExecutor} modes on a burst of simulated
+ * interactions. Every interaction waits a fixed time, standing in for network
+ * or storage latency, then runs a {@link ChatThread} or
+ * {@link FriendRequestThread} task between two students of a generated
+ * cohort without printing. All interactions are submitted at once, so the
+ * latency of each one, from submission to completion, includes its wait for
+ * a thread.
+ *
+ * <p>Usage: {@code java InteractionLoadTest [interactions] [delayMicros] [platformThreads] [seed]},
+ * defaulting to 100000 interactions, a 200 microsecond delay, the 4 platform
+ * threads of {@code Main.gradeLab} and seed 42.
+ *
+ * @author LonghornNetwork Team
+ */
+public class InteractionLoadTest {
+    /** Number of students interacting */
+    private static final int COHORT_SIZE = 1000;
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private InteractionLoadTest() {
+    }
+
+    /**
+     * Runs the burst in PLATFORM mode and then in VIRTUAL mode and prints both reports.
+     *
+     * @param args optional interactions, delayMicros, platformThreads and seed
+     */
+    public static void main(String[] args) {
+        int interactions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long delayMicros = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        int platformThreads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        if (interactions < 1 || delayMicros < 0) {
+            throw new IllegalArgumentException("Interactions must be positive and the delay non-negative");
+        }
+
+        List<UniversityStudent> students = new CohortGenerator(seed).generate(COHORT_SIZE);
+        if (!InteractionExecutor.virtualThreadsAvailable()) {
+            System.out.println("Virtual threads need Java 21; VIRTUAL mode uses "
+                    + InteractionExecutor.FALLBACK_POOL_SIZE + " platform threads");
+        }
+        System.out.printf("%-10s %8s %12s %10s %10s %10s %10s%n",
+                "mode", "threads", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (InteractionExecutor.Mode mode : InteractionExecutor.Mode.values()) {
+            run(mode, students, interactions, delayMicros, platformThreads, seed);
+        }
+    }
+
+    /**
+     * Runs the burst in one mode and prints a report line.
+     *
+     * @param mode            the executor mode
+     * @param students        the cohort
+     * @param interactions    the number of interactions
+     * @param delayMicros     the simulated latency of each interaction
+     * @param platformThreads the pool size in PLATFORM mode
+     * @param seed            the seed choosing the interacting pairs
+     */
+    private static void run(InteractionExecutor.Mode mode, List<UniversityStudent> students, int interactions,
+                            long delayMicros, int platformThreads, long seed) {
+        MessageStore store = new MessageStore();
+        FriendshipStore friendships = new FriendshipStore(store.getDirectory(), FriendshipStore.DEFAULT_STRIPES);
+        Random random = new Random(seed);
+        long[] latencies = new long[interactions];
+        long delayNanos = TimeUnit.MICROSECONDS.toNanos(delayMicros);
+        boolean virtual;
+
+        long start = System.nanoTime();
+        try (InteractionExecutor executor = new InteractionExecutor(mode, platformThreads)) {
+            virtual = executor.isVirtual();
+            for (int i = 0; i < interactions; i++) {
+                UniversityStudent sender = students.get(random.nextInt(students.size()));
+                UniversityStudent receiver = students.get(random.nextInt(students.size()));
+                Runnable task = i % 2 == 0
+                        ? new ChatThread(sender, receiver, "Message " + i, store, null)
+                        : new FriendRequestThread(sender, receiver, friendships, null);
+                int index = i;
+                long submitted = System.nanoTime();
+                executor.submit(() -> {
+                    if (delayNanos > 0) {
+                        LockSupport.parkNanos(delayNanos);
+                    }
+                    task.run();
+                    latencies[index] = System.nanoTime() - submitted;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        String threads = mode == InteractionExecutor.Mode.PLATFORM ? String.valueOf(platformThreads)
+                : virtual ? "virtual" : String.valueOf(InteractionExecutor.FALLBACK_POOL_SIZE);
+        System.out.printf("%-10s %8s %12.0f %10.2f %10.2f %10.2f %10.2f%n", mode, threads,
+                interactions / (elapsed / 1e9), percentile(latencies, 50.0) / 1e6,
+                percentile(latencies, 99.0) / 1e6, percentile(latencies, 99.9) / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Returns a nearest-rank percentile.
+     *
+     * @param sorted the values in ascending order, not empty
+     * @param p      the percentile, from 0 to 100
+     * @return the smallest value with at least p percent of the values at or below it
+     */
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
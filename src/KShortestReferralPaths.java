@@ -0,0 +1,331 @@
+import java.util.*;
+
+/**
+ * Yen's k-shortest simple paths from one student to the alumni of a company.
+ * A path ends at the first alumnus it reaches, exactly like a single referral
+ * query, so every returned path is a distinct referral chain.
+ *
+ * <p>Search state is shared across Yen's iterations instead of running a full
+ * Dijkstra per spur node: one backward Dijkstra from all alumni gives every
+ * node's exact distance to its nearest alumnus. That distance is the spur
+ * path itself whenever the shortest-path tree avoids the removed nodes and
+ * edges, and otherwise a consistent A* heuristic that keeps spur searches
+ * narrow. All scratch arrays are epoch-stamped and reused.
+ *
+ * @author LonghornNetwork Team
+ */
+final class KShortestReferralPaths {
+    /** The graph being searched */
+    private final CompactStudentGraph graph;
+    /** Alumni of the target company, which end every path */
+    private final BitSet alumni;
+    /** Distance from each node to its nearest alumnus, or infinity if unreachable */
+    private final double[] toAlumni;
+    /** Next node on the shortest path from each node to its nearest alumnus */
+    private final int[] towardAlumni;
+    /** Cost from the spur node, valid when reached in the current epoch */
+    private final double[] cost;
+    /** Predecessor in the spur search, valid when reached in the current epoch */
+    private final int[] predecessor;
+    /** Epoch in which each node was last reached by a spur search */
+    private final int[] reachedEpoch;
+    /** Epoch in which each node was last settled by a spur search */
+    private final int[] settledEpoch;
+    /** Epoch in which each node was last excluded as part of the root path */
+    private final int[] blockedEpoch;
+    /** Epoch in which each node was last excluded as the spur node's next hop */
+    private final int[] skippedEpoch;
+    /** Frontier shared by the backward search and all spur searches */
+    private final IndexedMinHeap frontier;
+    /** Stamp of the current spur search */
+    private int epoch;
+    /** Nodes settled so far by the backward search and all spur searches */
+    private int settledCount;
+
+    /**
+     * Prepares a k-shortest-paths search toward the given alumni.
+     *
+     * @param graph  the graph to search
+     * @param alumni the ids of the students who end a path
+     */
+    KShortestReferralPaths(CompactStudentGraph graph, BitSet alumni) {
+        this.graph = graph;
+        this.alumni = alumni;
+        int n = graph.size();
+        toAlumni = new double[n];
+        towardAlumni = new int[n];
+        cost = new double[n];
+        predecessor = new int[n];
+        reachedEpoch = new int[n];
+        settledEpoch = new int[n];
+        blockedEpoch = new int[n];
+        skippedEpoch = new int[n];
+        frontier = new IndexedMinHeap(n);
+        computeDistancesToAlumni();
+    }
+
+    /**
+     * Returns up to {@code k} simple paths from the start to an alumnus, in
+     * order of non-decreasing cost.
+     *
+     * @param start the start node id
+     * @param k     the maximum number of paths
+     * @return paths as node id arrays, start first
+     */
+    List<int[]> find(int start, int k) {
+        List<int[]> accepted = new ArrayList<>();
+        if (k < 1 || toAlumni[start] == Double.POSITIVE_INFINITY) {
+            return accepted;
+        }
+        accepted.add(treePath(start));
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<PathKey> seen = new HashSet<>();
+        seen.add(new PathKey(accepted.get(0)));
+        long sequence = 0;
+
+        while (accepted.size() < k) {
+            int[] previous = accepted.get(accepted.size() - 1);
+            double rootCost = 0.0;
+            // The last node is an alumnus and cannot be a spur node
+            for (int i = 0; i < previous.length - 1; i++) {
+                int spur = previous[i];
+                epoch++;
+                for (int r = 0; r < i; r++) {
+                    blockedEpoch[previous[r]] = epoch;
+                }
+                for (int[] path : accepted) {
+                    if (path.length > i + 1 && Arrays.equals(path, 0, i + 1, previous, 0, i + 1)) {
+                        skippedEpoch[path[i + 1]] = epoch;
+                    }
+                }
+
+                int[] spurPath = spurPath(spur);
+                if (spurPath != null) {
+                    int[] total = new int[i + spurPath.length];
+                    System.arraycopy(previous, 0, total, 0, i);
+                    System.arraycopy(spurPath, 0, total, i, spurPath.length);
+                    PathKey key = new PathKey(total);
+                    if (seen.add(key)) {
+                        candidates.add(new Candidate(total, rootCost + pathCost(spurPath), sequence++));
+                    }
+                }
+                rootCost += edgeCost(previous[i], previous[i + 1]);
+            }
+
+            Candidate best = candidates.poll();
+            if (best == null) {
+                break;
+            }
+            accepted.add(best.path);
+        }
+        return accepted;
+    }
+
+    /**
+     * Returns the number of nodes settled so far, counting the backward search
+     * from the alumni and every spur search that was not answered from its
+     * shortest-path tree.
+     *
+     * @return the settled node count
+     */
+    int settledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Runs a backward Dijkstra seeded from every alumnus, filling
+     * {@link #toAlumni} and {@link #towardAlumni}.
+     */
+    private void computeDistancesToAlumni() {
+        Arrays.fill(toAlumni, Double.POSITIVE_INFINITY);
+        for (int a = alumni.nextSetBit(0); a >= 0; a = alumni.nextSetBit(a + 1)) {
+            toAlumni[a] = 0.0;
+            towardAlumni[a] = -1;
+            frontier.insertOrDecrease(a, 0.0);
+        }
+        while (!frontier.isEmpty()) {
+            int current = frontier.poll();
+            settledCount++;
+            double base = toAlumni[current];
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                int neighbor = graph.target(e);
+                double d = base + ReferralSearchEngine.EDGE_COST[graph.weight(e)];
+                if (d < toAlumni[neighbor]) {
+                    toAlumni[neighbor] = d;
+                    towardAlumni[neighbor] = current;
+                    frontier.insertOrDecrease(neighbor, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the cheapest path from the spur node to an alumnus that avoids the
+     * blocked root nodes and the skipped first hops of the current epoch.
+     *
+     * @param spur the spur node id
+     * @return the spur path, spur first, or null if none exists
+     */
+    private int[] spurPath(int spur) {
+        int[] shortcut = treePathIfUnobstructed(spur);
+        if (shortcut != null) {
+            return shortcut;
+        }
+
+        // A* guided by the exact unrestricted distance to the nearest alumnus
+        frontier.clear();
+        reachedEpoch[spur] = epoch;
+        cost[spur] = 0.0;
+        predecessor[spur] = -1;
+        frontier.insertOrDecrease(spur, toAlumni[spur]);
+        while (!frontier.isEmpty()) {
+            int current = frontier.poll();
+            settledEpoch[current] = epoch;
+            settledCount++;
+            if (alumni.get(current)) {
+                frontier.clear();
+                return chain(current);
+            }
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                int neighbor = graph.target(e);
+                if (settledEpoch[neighbor] == epoch || blockedEpoch[neighbor] == epoch
+                        || toAlumni[neighbor] == Double.POSITIVE_INFINITY
+                        || (current == spur && skippedEpoch[neighbor] == epoch)) {
+                    continue;
+                }
+                double g = cost[current] + ReferralSearchEngine.EDGE_COST[graph.weight(e)];
+                if (reachedEpoch[neighbor] != epoch || g < cost[neighbor]) {
+                    reachedEpoch[neighbor] = epoch;
+                    cost[neighbor] = g;
+                    predecessor[neighbor] = current;
+                    frontier.insertOrDecrease(neighbor, g + toAlumni[neighbor]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the shortest-path-tree path from a node if it avoids every node
+     * and first hop excluded in the current epoch; such a path is optimal.
+     *
+     * @param spur the spur node id
+     * @return the tree path, or null if it is obstructed
+     */
+    private int[] treePathIfUnobstructed(int spur) {
+        if (toAlumni[spur] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        int next = towardAlumni[spur];
+        if (next >= 0 && skippedEpoch[next] == epoch) {
+            return null;
+        }
+        for (int node = next; node >= 0; node = towardAlumni[node]) {
+            if (blockedEpoch[node] == epoch) {
+                return null;
+            }
+        }
+        return treePath(spur);
+    }
+
+    /**
+     * Returns the shortest-path-tree path from a node to its nearest alumnus.
+     *
+     * @param from the first node
+     * @return the path, {@code from} first
+     */
+    private int[] treePath(int from) {
+        int length = 0;
+        for (int node = from; node >= 0; node = towardAlumni[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int i = 0;
+        for (int node = from; node >= 0; node = towardAlumni[node]) {
+            path[i++] = node;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the spur search path ending at the given node.
+     *
+     * @param end the node where the spur search stopped
+     * @return the path, spur node first
+     */
+    private int[] chain(int end) {
+        int length = 0;
+        for (int node = end; node >= 0; node = predecessor[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = end; node >= 0; node = predecessor[node]) {
+            path[--length] = node;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the total inverted-weight cost of a path.
+     *
+     * @param path node ids in order
+     * @return the path cost
+     */
+    private double pathCost(int[] path) {
+        double total = 0.0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            total += edgeCost(path[i], path[i + 1]);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the inverted-weight cost of the edge between two adjacent nodes.
+     *
+     * @param from one endpoint
+     * @param to   the other endpoint
+     * @return the edge cost
+     * @throws IllegalStateException if the nodes are not adjacent
+     */
+    private double edgeCost(int from, int to) {
+        for (int e = graph.edgeStart(from), end = graph.edgeEnd(from); e < end; e++) {
+            if (graph.target(e) == to) {
+                return ReferralSearchEngine.EDGE_COST[graph.weight(e)];
+            }
+        }
+        throw new IllegalStateException("No edge between " + from + " and " + to);
+    }
+
+    /**
+     * A candidate path ordered by cost, then by discovery order.
+     *
+     * @param path     node ids, start first
+     * @param cost     the path cost
+     * @param sequence discovery order used to break ties deterministically
+     */
+    private record Candidate(int[] path, double cost, long sequence) implements Comparable<Candidate> {
+        @Override
+        public int compareTo(Candidate other) {
+            int byCost = Double.compare(cost, other.cost);
+            return byCost != 0 ? byCost : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Value wrapper so paths can be deduplicated in hash sets.
+     *
+     * @param path node ids, start first
+     */
+    private record PathKey(int[] path) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PathKey other && Arrays.equals(path, other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(path);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test. Writes a synthetic cohort with
+ * {@link CohortGenerator}, then repeatedly runs the full pipeline on it:
+ * parse, roommate matching, graph build, pod formation and a batch of
+ * referral queries. The graph is built after the matching is applied, as in
+ * {@code Main}, so it has the roommate edges. Reports the latency
+ * percentiles of every stage, pipeline and query throughput, and the peak
+ * heap used by the measured runs. The peak is the largest total heap usage
+ * seen by a background thread sampling every {@link #HEAP_SAMPLE_MILLIS} ms,
+ * which can miss a shorter spike; the sum of each heap pool's own peak is
+ * printed beside it as an upper bound.
+ *
+ * <p>Usage: {@code java LoadTestDriver [size] [runs] [seed] [queries]},
+ * defaulting to 2000 students, 10 measured runs after 2 warm-up runs, seed
+ * 42 and 200 referral queries per run. Graph edges grow quadratically with
+ * the cohort size, so sizes much beyond 10k students need a large heap.
+ *
+ * @author LonghornNetwork Team
+ */
+public class LoadTestDriver {
+    /** Untimed runs performed before measuring, so the JIT has compiled the pipeline */
+    private static final int WARMUP_RUNS = 2;
+    /** Pod size used for pod formation */
+    private static final int POD_SIZE = 4;
+    /** Interval between heap usage samples */
+    private static final long HEAP_SAMPLE_MILLIS = 10;
+    /** Names of the measured stages, in pipeline order */
+    private static final String[] STAGES = {"parse", "match", "graph", "pods", "referrals", "total"};
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private LoadTestDriver() {
+    }
+
+    /**
+     * Runs the load test and prints its report.
+     *
+     * @param args optional size, runs, seed and queries
+     * @throws IOException if the cohort file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        int queries = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        if (size < 1 || runs < 1 || queries < 0) {
+            throw new IllegalArgumentException("Size and runs must be positive and queries non-negative");
+        }
+
+        Path file = Files.createTempFile("cohort", ".txt");
+        try {
+            long start = System.nanoTime();
+            new CohortGenerator(seed).write(size, file);
+            System.out.printf("Generated %d students (%d bytes) in %.1f ms%n",
+                    size, Files.size(file), (System.nanoTime() - start) / 1e6);
+
+            for (int run = 0; run < WARMUP_RUNS; run++) {
+                runPipeline(file, queries, seed + run, new long[STAGES.length], new long[queries]);
+            }
+
+            List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                    heapPools.add(pool);
+                }
+            }
+
+            long[][] stageTimes = new long[STAGES.length][runs];
+            long[] queryTimes = new long[runs * queries];
+            long[] times = new long[STAGES.length];
+            long[] runQueryTimes = new long[queries];
+            long sampledPeak;
+            try (HeapSampler sampler = new HeapSampler()) {
+                for (int run = 0; run < runs; run++) {
+                    runPipeline(file, queries, seed + WARMUP_RUNS + run, times, runQueryTimes);
+                    for (int s = 0; s < STAGES.length; s++) {
+                        stageTimes[s][run] = times[s];
+                    }
+                    System.arraycopy(runQueryTimes, 0, queryTimes, run * queries, queries);
+                }
+                sampledPeak = sampler.peak();
+            }
+
+            long poolPeakSum = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                poolPeakSum += pool.getPeakUsage().getUsed();
+            }
+            report(size, runs, queries, stageTimes, queryTimes, sampledPeak, poolPeakSum);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Runs the pipeline once.
+     *
+     * @param file       the cohort file
+     * @param queries    the number of referral queries
+     * @param seed       the seed choosing the referral queries
+     * @param times      receives the nanoseconds spent in each stage, in {@link #STAGES} order
+     * @param queryTimes receives the nanoseconds spent in each referral query
+     * @throws IOException if the file cannot be read
+     */
+    private static void runPipeline(Path file, int queries, long seed, long[] times, long[] queryTimes)
+            throws IOException {
+        long runStart = System.nanoTime();
+        long t = runStart;
+        List<UniversityStudent> students = DataParser.parseStudents(file.toString());
+        times[0] = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        RoommateMatching matching = GaleShapley.match(students);
+        matching.apply();
+        times[1] = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        StudentGraph graph = new StudentGraph(students);
+        times[2] = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        new PodFormation(graph).formPods(POD_SIZE);
+        times[3] = System.nanoTime() - t;
+
+        // Query companies some student has interned at, so most queries find a path
+        Random random = new Random(seed);
+        ReferralPathFinder finder = new ReferralPathFinder(graph);
+        t = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            UniversityStudent start = students.get(random.nextInt(students.size()));
+            UniversityStudent alumnus = students.get(random.nextInt(students.size()));
+            String company = alumnus.previousInternships.isEmpty()
+                    ? "None" : alumnus.previousInternships.get(random.nextInt(alumnus.previousInternships.size()));
+            long queryStart = System.nanoTime();
+            finder.findReferralPath(start, company);
+            queryTimes[q] = System.nanoTime() - queryStart;
+        }
+        times[4] = System.nanoTime() - t;
+        times[5] = System.nanoTime() - runStart;
+    }
+
+    /**
+     * Prints the latency table, throughput and peak heap.
+     *
+     * @param size        the number of students
+     * @param runs        the number of measured runs
+     * @param queries     the number of referral queries per run
+     * @param stageTimes  the nanoseconds spent in each stage, per run
+     * @param queryTimes  the nanoseconds spent in each referral query
+     * @param sampledPeak the largest sampled heap usage in bytes
+     * @param poolPeakSum the sum of the heap pools' peak usage in bytes
+     */
+    private static void report(int size, int runs, int queries, long[][] stageTimes, long[] queryTimes,
+                               long sampledPeak, long poolPeakSum) {
+        System.out.printf("%nStage latency over %d runs (ms)%n", runs);
+        System.out.printf("%-10s %10s %10s %10s %10s%n", "stage", "p50", "p90", "p99", "max");
+        for (int s = 0; s < STAGES.length; s++) {
+            long[] sorted = stageTimes[s].clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-10s %10.2f %10.2f %10.2f %10.2f%n", STAGES[s],
+                    percentile(sorted, 50) / 1e6, percentile(sorted, 90) / 1e6,
+                    percentile(sorted, 99) / 1e6, sorted[sorted.length - 1] / 1e6);
+        }
+
+        long total = 0;
+        for (long time : stageTimes[STAGES.length - 1]) {
+            total += time;
+        }
+        double seconds = total / 1e9;
+        System.out.printf("%nPipeline throughput: %.2f runs/s, %.0f students/s%n",
+                runs / seconds, (double) size * runs / seconds);
+
+        if (queries > 0) {
+            long[] sorted = queryTimes.clone();
+            Arrays.sort(sorted);
+            long queryTotal = 0;
+            for (long time : stageTimes[4]) {
+                queryTotal += time;
+            }
+            System.out.printf("Referral queries: %.0f queries/s, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                    (double) queries * runs / (queryTotal / 1e9), percentile(sorted, 50) / 1e3,
+                    percentile(sorted, 99) / 1e3, sorted[sorted.length - 1] / 1e3);
+        }
+        System.out.printf("Peak heap: %.1f MB sampled every %d ms, at most %.1f MB (sum of pool peaks)%n",
+                sampledPeak / (1024.0 * 1024.0), HEAP_SAMPLE_MILLIS, poolPeakSum / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Returns a nearest-rank percentile.
+     *
+     * @param sorted the values in ascending order, not empty
+     * @param p      the percentile, from 0 to 100
+     * @return the smallest value with at least p percent of the values at or below it
+     */
+    private static long percentile(long[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Background thread recording the largest total heap usage it observes.
+     */
+    private static final class HeapSampler implements AutoCloseable {
+        /** Source of the heap usage */
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        /** The sampling thread */
+        private final Thread thread;
+        /** Largest heap usage seen, in bytes */
+        private final AtomicLong peak = new AtomicLong();
+        /** Set to stop sampling */
+        private volatile boolean stopped;
+
+        /**
+         * Takes a first sample and starts the sampling thread.
+         */
+        HeapSampler() {
+            sample();
+            thread = new Thread(this::run, "heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Returns the largest heap usage seen so far.
+         *
+         * @return the peak in bytes
+         */
+        long peak() {
+            sample();
+            return peak.get();
+        }
+
+        /**
+         * Samples until stopped.
+         */
+        private void run() {
+            while (!stopped) {
+                sample();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(HEAP_SAMPLE_MILLIS));
+            }
+        }
+
+        /**
+         * Records the current heap usage if it is a new peak.
+         */
+        private void sample() {
+            peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        }
+
+        /**
+         * Stops the sampling thread and waits for it.
+         */
+        @Override
+        public void close() {
+            stopped = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
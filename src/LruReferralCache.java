@@ -0,0 +1,110 @@
+import java.util.*;
+
+/**
+ * Size-bounded {@link ReferralCache} that evicts the least recently used entry
+ * once the configured maximum is reached. All operations are synchronized, so
+ * statistics can be read while another thread is querying.
+ *
+ * @author LonghornNetwork Team
+ */
+public class LruReferralCache implements ReferralCache {
+    /** Maximum number of cached paths */
+    private final int maxSize;
+    /** Cached paths in access order, least recently used first */
+    private final LinkedHashMap<Key, List<UniversityStudent>> entries;
+    /** Number of lookups that found a cached path */
+    private long hits;
+    /** Number of lookups that found no cached path */
+    private long misses;
+    /** Number of entries removed to respect the size bound */
+    private long evictions;
+
+    /**
+     * Constructs an empty cache holding at most {@code maxSize} paths.
+     *
+     * @param maxSize the maximum number of cached paths (at least 1)
+     * @throws IllegalArgumentException if maxSize is less than 1
+     */
+    public LruReferralCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<UniversityStudent>> eldest) {
+                if (size() > LruReferralCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized List<UniversityStudent> get(StudentGraph graph, ReferralPathFinder.SearchMode mode,
+                                                    UniversityStudent start, String foldedCompany) {
+        List<UniversityStudent> path = entries.get(new Key(graph, mode, start, foldedCompany));
+        if (path == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return path;
+    }
+
+    @Override
+    public synchronized void put(StudentGraph graph, ReferralPathFinder.SearchMode mode, UniversityStudent start,
+                                 String foldedCompany, List<UniversityStudent> path) {
+        entries.put(new Key(graph, mode, start, foldedCompany), List.copyOf(path));
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    @Override
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to respect the size bound.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of cached paths.
+     *
+     * @return the current cache size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Cache key of a graph, search mode, start student and case-folded
+     * company name. StudentGraph and UniversityStudent use identity equality.
+     *
+     * @param graph         the graph searched
+     * @param mode          the search mode
+     * @param start         the starting student
+     * @param foldedCompany the case-folded company name
+     */
+    private record Key(StudentGraph graph, ReferralPathFinder.SearchMode mode, UniversityStudent start,
+                       String foldedCompany) {
+    }
+}
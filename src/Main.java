@@ -148,8 +148,9 @@ public class Main {
         System.out.println("\n--- Automated Tests for Test Case " + testCaseNumber + " ---");
 
         // Test StudentGraph (30 pts)
+        StudentGraph graph = null;
         try {
-            StudentGraph graph = new StudentGraph(students);
+            graph = new StudentGraph(students);
             // Verify that each edge is reciprocal.
             for (UniversityStudent s : graph.getAllNodes()) {
                 List<StudentGraph.Edge> edges = graph.getNeighbors(s);
@@ -176,6 +177,10 @@ public class Main {
 
         // Test GaleShapley (20 pts)
         try {
+            Map<UniversityStudent, UniversityStudent> previousRoommates = new IdentityHashMap<>();
+            for (UniversityStudent s : students) {
+                previousRoommates.put(s, s.getRoommate());
+            }
             GaleShapley.assignRoommates(students);
             // Count unpaired students. In an even-sized group, there should be none;
             // in odd-sized groups, at most one can remain unpaired.
@@ -192,6 +197,16 @@ public class Main {
             if (unpairedCount > 1) {
                 throw new Exception("Too many unpaired students: " + unpairedCount);
             }
+            // Roommate edges changed; update only the students whose roommate changed
+            if (graph != null) {
+                List<UniversityStudent> changed = new ArrayList<>();
+                for (UniversityStudent s : students) {
+                    if (s.getRoommate() != previousRoommates.get(s)) {
+                        changed.add(s);
+                    }
+                }
+                graph.onRoommatesChanged(changed);
+            }
             score += 20;
             System.out.println("Test: GaleShapley passed (+20 pts).");
         } catch (Exception e) {
@@ -201,17 +216,18 @@ public class Main {
         // Test FriendRequestThread and ChatThread with semaphores (20 pts)
         try {
             if (students.size() >= 2) {
-                ExecutorService executor = Executors.newFixedThreadPool(4);
+                InteractionExecutor executor = new InteractionExecutor(InteractionExecutor.Mode.PLATFORM, 4);
+                MessageStore messages = new MessageStore();
+                FriendshipStore friendships = new FriendshipStore(messages.getDirectory(),
+                        FriendshipStore.DEFAULT_STRIPES);
                 UniversityStudent s1 = students.get(0);
                 UniversityStudent s2 = students.get(1);
                 // Submit multiple concurrent tasks.
-                executor.submit(new FriendRequestThread(s1, s2));
-                executor.submit(new ChatThread(s1, s2, "Hello there!"));
-                executor.submit(new FriendRequestThread(s2, s1));
-                executor.submit(new ChatThread(s2, s1, "Hi back!"));
-                executor.shutdown();
-                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executor.shutdownNow();
+                executor.submit(new FriendRequestThread(s1, s2, friendships, System.out::println));
+                executor.submit(new ChatThread(s1, s2, "Hello there!", messages, System.out::println));
+                executor.submit(new FriendRequestThread(s2, s1, friendships, System.out::println));
+                executor.submit(new ChatThread(s2, s1, "Hi back!", messages, System.out::println));
+                if (!executor.awaitCompletion(5, TimeUnit.SECONDS)) {
                     throw new RuntimeException("Concurrency tasks did not finish in time.");
                 }
                 score += 20;
@@ -225,7 +241,9 @@ public class Main {
 
         // Test ReferralPathFinder using PriorityQueue (10 pts)
         try {
-            StudentGraph graph = new StudentGraph(students);
+            if (graph == null) {
+                graph = new StudentGraph(students);
+            }
             ReferralPathFinder pathFinder = new ReferralPathFinder(graph);
             // For test case 2, we expect a non-empty referral path when searching for "DummyCompany".
             // For test cases that don't have that internship, the returned path may be empty.
@@ -0,0 +1,255 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe chat history. Each conversation, identified by the unordered
+ * pair of its students' directory ids, keeps its most recent messages in a
+ * ring buffer of fixed capacity whose slots are allocated 16 at a time
+ * as the conversation first reaches them, so a short
+ * conversation costs a few slots rather than the whole capacity. The store
+ * keeps every conversation until it is discarded; its owner decides how long
+ * that is. Appends are lock-free: a message takes the next
+ * sequence number of its conversation and is published into its slot with
+ * compare-and-set, so writers to different conversations share nothing but
+ * the conversation map, and writers to the same conversation agree on one
+ * order.
+ *
+ * @author LonghornNetwork Team
+ */
+public class MessageStore {
+    /** Number of recent messages kept per conversation by default */
+    public static final int DEFAULT_CAPACITY = 256;
+    /** Number of ring slots allocated together */
+    private static final int SEGMENT_SIZE = 16;
+
+    /** Directory assigning student ids */
+    private final StudentDirectory directory;
+    /** Messages kept per conversation */
+    private final int capacity;
+    /** Conversations by pair key */
+    private final ConcurrentHashMap<Long, Conversation> conversations = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty store with its own directory and the default capacity.
+     */
+    public MessageStore() {
+        this(new StudentDirectory(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param directory the directory assigning student ids
+     * @param capacity  the number of recent messages kept per conversation (at least 1)
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public MessageStore(StudentDirectory directory, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        this.directory = directory;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the directory assigning student ids.
+     *
+     * @return the directory
+     */
+    public StudentDirectory getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Appends a message to the conversation between two students.
+     *
+     * @param sender   the sending student
+     * @param receiver the receiving student
+     * @param text     the message content
+     * @return the stored message
+     */
+    public ChatMessage send(UniversityStudent sender, UniversityStudent receiver, String text) {
+        return send(directory.idOf(sender), directory.idOf(receiver), text);
+    }
+
+    /**
+     * Appends a message to the conversation between two student ids.
+     *
+     * @param senderId   the directory id of the sender
+     * @param receiverId the directory id of the receiver
+     * @param text       the message content
+     * @return the stored message
+     * @throws IllegalArgumentException if an id is negative
+     */
+    public ChatMessage send(int senderId, int receiverId, String text) {
+        long key = key(senderId, receiverId);
+        Conversation conversation = conversations.get(key);
+        if (conversation == null) {
+            conversation = conversations.computeIfAbsent(key, k -> new Conversation(capacity));
+        }
+        return conversation.append(senderId, receiverId, text);
+    }
+
+    /**
+     * Returns the retained messages between two students, oldest first.
+     *
+     * @param a one student
+     * @param b the other student
+     * @return up to the capacity's worth of the most recent messages
+     */
+    public List<ChatMessage> history(UniversityStudent a, UniversityStudent b) {
+        int first = directory.find(a);
+        int second = directory.find(b);
+        if (first == StudentDirectory.NO_ID || second == StudentDirectory.NO_ID) {
+            return Collections.emptyList();
+        }
+        return history(first, second);
+    }
+
+    /**
+     * Returns the retained messages between two student ids, oldest first.
+     * Messages still being appended by other threads may be missing.
+     *
+     * @param a one student id
+     * @param b the other student id
+     * @return up to the capacity's worth of the most recent messages
+     * @throws IllegalArgumentException if an id is negative
+     */
+    public List<ChatMessage> history(int a, int b) {
+        Conversation conversation = conversations.get(key(a, b));
+        return conversation == null ? Collections.emptyList() : conversation.snapshot();
+    }
+
+    /**
+     * Returns the number of messages ever appended between two student ids,
+     * including those no longer retained.
+     *
+     * @param a one student id
+     * @param b the other student id
+     * @return the message count
+     * @throws IllegalArgumentException if an id is negative
+     */
+    public long messageCount(int a, int b) {
+        Conversation conversation = conversations.get(key(a, b));
+        return conversation == null ? 0 : conversation.next.get();
+    }
+
+    /**
+     * Returns the number of conversations with at least one message.
+     *
+     * @return the conversation count
+     */
+    public int conversationCount() {
+        return conversations.size();
+    }
+
+    /**
+     * Packs the unordered pair of two ids into one key.
+     *
+     * @param a one id
+     * @param b the other id
+     * @return the smaller id in the high half, the larger in the low half
+     * @throws IllegalArgumentException if an id is negative
+     */
+    private static long key(int a, int b) {
+        if (a < 0 || b < 0) {
+            throw new IllegalArgumentException("Student ids must be non-negative: " + a + ", " + b);
+        }
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    /**
+     * Ring buffer holding the most recent messages of one conversation.
+     */
+    private static final class Conversation {
+        /** Sequence number of the next message */
+        private final AtomicLong next = new AtomicLong();
+        /** Number of slots; the message with sequence s is kept in slot s % capacity */
+        private final int capacity;
+        /** Slot i is element i % SEGMENT_SIZE of segment i / SEGMENT_SIZE, null until first used */
+        private final AtomicReferenceArray<AtomicReferenceArray<ChatMessage>> segments;
+
+        /**
+         * Constructs an empty conversation without allocating any slot.
+         *
+         * @param capacity the number of slots
+         */
+        Conversation(int capacity) {
+            this.capacity = capacity;
+            this.segments = new AtomicReferenceArray<>((capacity + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        }
+
+        /**
+         * Returns the segment holding a slot, allocating it if needed. Racing
+         * allocations agree on one segment by compare-and-set.
+         *
+         * @param slot the slot index
+         * @return the segment
+         */
+        private AtomicReferenceArray<ChatMessage> segmentFor(int slot) {
+            int index = slot / SEGMENT_SIZE;
+            AtomicReferenceArray<ChatMessage> segment = segments.get(index);
+            if (segment == null) {
+                int length = Math.min(SEGMENT_SIZE, capacity - index * SEGMENT_SIZE);
+                AtomicReferenceArray<ChatMessage> created = new AtomicReferenceArray<>(length);
+                segment = segments.compareAndSet(index, null, created) ? created : segments.get(index);
+            }
+            return segment;
+        }
+
+        /**
+         * Returns the message in a slot.
+         *
+         * @param slot the slot index
+         * @return the message, or null if the slot has never been written
+         */
+        private ChatMessage messageAt(int slot) {
+            AtomicReferenceArray<ChatMessage> segment = segments.get(slot / SEGMENT_SIZE);
+            return segment == null ? null : segment.get(slot % SEGMENT_SIZE);
+        }
+
+        /**
+         * Appends a message, overwriting the oldest retained one when full.
+         *
+         * @param senderId   the sender id
+         * @param receiverId the receiver id
+         * @param text       the message content
+         * @return the stored message
+         */
+        ChatMessage append(int senderId, int receiverId, String text) {
+            long sequence = next.getAndIncrement();
+            ChatMessage message = new ChatMessage(senderId, receiverId, sequence, System.currentTimeMillis(), text);
+            int slot = (int) (sequence % capacity);
+            AtomicReferenceArray<ChatMessage> segment = segmentFor(slot);
+            int offset = slot % SEGMENT_SIZE;
+            // A writer a full lap ahead may already have filled the slot; never replace a newer message
+            ChatMessage current = segment.get(offset);
+            while ((current == null || current.getSequence() < sequence)
+                    && !segment.compareAndSet(offset, current, message)) {
+                current = segment.get(offset);
+            }
+            return message;
+        }
+
+        /**
+         * Copies the retained messages in sequence order.
+         *
+         * @return the messages, oldest first
+         */
+        List<ChatMessage> snapshot() {
+            long end = next.get();
+            long start = Math.max(0, end - capacity);
+            List<ChatMessage> result = new ArrayList<>((int) (end - start));
+            for (long sequence = start; sequence < end; sequence++) {
+                ChatMessage message = messageAt((int) (sequence % capacity));
+                // Skip slots whose writer has not published yet or that were lapped since end was read
+                if (message != null && message.getSequence() == sequence) {
+                    result.add(message);
+                }
+            }
+            return result;
+        }
+    }
+}
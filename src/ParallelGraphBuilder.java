@@ -0,0 +1,224 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Builds a {@link StudentGraph} by computing connection strengths on a
+ * fork-join pool. The row range is cut into chunks of roughly equal work;
+ * each chunk fills its own edge buffer and the buffers are merged in row
+ * order afterwards, so the resulting adjacency lists are identical to the
+ * sequential constructor.
+ *
+ * @author LonghornNetwork Team
+ */
+public class ParallelGraphBuilder {
+    /** Chunks created per worker so that work stealing can even out skew */
+    private static final int CHUNKS_PER_WORKER = 8;
+
+    /** Number of worker threads used for edge computation */
+    private final int parallelism;
+    /** How candidate pairs are enumerated within each row */
+    private final StudentGraph.BuildStrategy strategy;
+    /** Duration of each phase of the most recent build, in nanoseconds */
+    private final Map<String, Long> phaseTimings = new LinkedHashMap<>();
+
+    /**
+     * Constructs a builder using one worker per available processor and the
+     * indexed candidate strategy.
+     */
+    public ParallelGraphBuilder() {
+        this(Runtime.getRuntime().availableProcessors(), StudentGraph.BuildStrategy.INDEXED);
+    }
+
+    /**
+     * Constructs a builder with the given pool size and candidate strategy.
+     *
+     * @param parallelism the number of worker threads (at least 1)
+     * @param strategy    how candidate pairs are enumerated within each row
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public ParallelGraphBuilder(int parallelism, StudentGraph.BuildStrategy strategy) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Builds the graph for the given students.
+     *
+     * @param students the students to add to the graph
+     * @return a graph identical to {@code new StudentGraph(students, strategy)}
+     */
+    public StudentGraph build(List<UniversityStudent> students) {
+        phaseTimings.clear();
+        long phaseStart = System.nanoTime();
+        StudentAttributeIndex index = strategy == StudentGraph.BuildStrategy.INDEXED
+                ? new StudentAttributeIndex(students) : null;
+        phaseStart = recordPhase("index", phaseStart);
+
+        int[] chunkStarts = chunkRows(students.size(), index == null);
+        EdgeBuffer[] buffers = new EdgeBuffer[chunkStarts.length - 1];
+        ThreadLocal<int[]> stamps = ThreadLocal.withInitial(() -> new int[students.size()]);
+        ThreadLocal<int[]> candidates = ThreadLocal.withInitial(() -> new int[students.size()]);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ChunkTask(0, buffers.length, chunk -> {
+                EdgeBuffer buffer = new EdgeBuffer();
+                for (int i = chunkStarts[chunk]; i < chunkStarts[chunk + 1]; i++) {
+                    if (index == null) {
+                        for (int j = i + 1; j < students.size(); j++) {
+                            buffer.score(students, i, j);
+                        }
+                    } else {
+                        int[] out = candidates.get();
+                        int count = index.collectCandidates(i, stamps.get(), out);
+                        for (int k = 0; k < count; k++) {
+                            buffer.score(students, i, out[k]);
+                        }
+                    }
+                }
+                buffers[chunk] = buffer;
+            }));
+        } finally {
+            pool.shutdown();
+        }
+        phaseStart = recordPhase("edges", phaseStart);
+
+        StudentGraph graph = StudentGraph.withoutEdges(students);
+        for (EdgeBuffer buffer : buffers) {
+            for (int e = 0; e < buffer.size; e++) {
+                graph.addEdge(students.get(buffer.from[e]), students.get(buffer.to[e]), buffer.weight[e]);
+            }
+        }
+        recordPhase("merge", phaseStart);
+        return graph;
+    }
+
+    /**
+     * Returns how long each phase of the most recent build took.
+     *
+     * @return phase names ("index", "edges", "merge") mapped to nanoseconds, in execution order
+     */
+    public Map<String, Long> getPhaseTimings() {
+        return Collections.unmodifiableMap(phaseTimings);
+    }
+
+    /**
+     * Records the duration of a phase that started at the given time.
+     *
+     * @param phase     the phase name
+     * @param startNano the phase start from {@link System#nanoTime()}
+     * @return the current time, to be used as the start of the next phase
+     */
+    private long recordPhase(String phase, long startNano) {
+        long now = System.nanoTime();
+        phaseTimings.put(phase, now - startNano);
+        return now;
+    }
+
+    /**
+     * Splits the rows into chunks. Pairwise row {@code i} scores {@code n - i - 1}
+     * pairs, so chunk boundaries are placed to balance the triangle; indexed rows
+     * are split evenly.
+     *
+     * @param n         the number of rows
+     * @param triangular whether row cost decreases linearly with the row index
+     * @return chunk start rows followed by {@code n}
+     */
+    private int[] chunkRows(int n, boolean triangular) {
+        int chunks = Math.max(1, Math.min(n, parallelism * CHUNKS_PER_WORKER));
+        int[] starts = new int[chunks + 1];
+        double totalWork = triangular ? (double) n * (n - 1) / 2 : n;
+        int row = 0;
+        double work = 0;
+        for (int c = 1; c < chunks; c++) {
+            double target = totalWork * c / chunks;
+            while (row < n && work < target) {
+                work += triangular ? n - row - 1 : 1;
+                row++;
+            }
+            starts[c] = row;
+        }
+        starts[chunks] = n;
+        return starts;
+    }
+
+    /**
+     * Growable buffer of scored (from, to, weight) edges produced by one chunk.
+     */
+    private static final class EdgeBuffer {
+        /** Row positions of the first endpoint */
+        private int[] from = new int[16];
+        /** Positions of the second endpoint */
+        private int[] to = new int[16];
+        /** Connection strengths */
+        private int[] weight = new int[16];
+        /** Number of buffered edges */
+        private int size;
+
+        /**
+         * Scores a pair and buffers it if the connection strength is positive.
+         *
+         * @param students the students being built
+         * @param i        position of the student whose calculation is used
+         * @param j        position of the other student
+         */
+        void score(List<UniversityStudent> students, int i, int j) {
+            int w = students.get(i).calculateConnectionStrength(students.get(j));
+            if (w <= 0) {
+                return;
+            }
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+            }
+            from[size] = i;
+            to[size] = j;
+            weight[size] = w;
+            size++;
+        }
+    }
+
+    /**
+     * Fork-join task that recursively splits a range of chunk indices.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        /** Serialization version of this task */
+        private static final long serialVersionUID = 1L;
+
+        /** First chunk index (inclusive) */
+        private final int lo;
+        /** Last chunk index (exclusive) */
+        private final int hi;
+        /** Work performed for a single chunk */
+        private final transient IntConsumer body;
+
+        /**
+         * Constructs a task over a chunk index range.
+         *
+         * @param lo   first chunk index (inclusive)
+         * @param hi   last chunk index (exclusive)
+         * @param body work performed for each chunk
+         */
+        ChunkTask(int lo, int hi, IntConsumer body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= 1) {
+                if (lo < hi) {
+                    body.accept(lo);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ChunkTask(lo, mid, body), new ChunkTask(mid, hi, body));
+        }
+    }
+}
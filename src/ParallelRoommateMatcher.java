@@ -0,0 +1,191 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a roommate matcher separately on each weakly connected component of
+ * the preference graph, on a fork-join pool. Students only ever propose to,
+ * hold, or block with students they are linked to by a preference or an
+ * existing roommate pairing, so components never interact: each one sees
+ * exactly the decisions it would see in a sequential run, and the merged
+ * result is identical to matching the whole list at once.
+ *
+ * @author LonghornNetwork Team
+ */
+public class ParallelRoommateMatcher {
+    /**
+     * Matching algorithms that can be run per component.
+     */
+    public enum Algorithm {
+        /** The Gale-Shapley variant of {@link GaleShapley} */
+        GALE_SHAPLEY,
+        /** Irving's stable roommates algorithm of {@link StableRoommates} */
+        IRVING
+    }
+
+    /** Algorithm run on each component */
+    private final Algorithm algorithm;
+    /** Number of worker threads */
+    private final int parallelism;
+    /** Number of components found by the most recent match */
+    private int componentCount;
+
+    /**
+     * Constructs a Gale-Shapley matcher using one worker per available processor.
+     */
+    public ParallelRoommateMatcher() {
+        this(Algorithm.GALE_SHAPLEY, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a matcher with the given algorithm and pool size.
+     *
+     * @param algorithm   the algorithm run on each component
+     * @param parallelism the number of worker threads (at least 1)
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public ParallelRoommateMatcher(Algorithm algorithm, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.algorithm = algorithm;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Computes a matching without printing or changing any student.
+     *
+     * @param students The list of UniversityStudent objects to match
+     * @return the same matching as the sequential matcher
+     */
+    public RoommateMatching match(List<UniversityStudent> students) {
+        return match(students, null);
+    }
+
+    /**
+     * Computes a matching without changing any student, reporting it to a log
+     * sink with the same lines as the sequential matcher.
+     *
+     * @param students The list of UniversityStudent objects to match
+     * @param log      receives the report line by line, or null for no report
+     * @return the same matching as the sequential matcher
+     */
+    public RoommateMatching match(List<UniversityStudent> students, Consumer<String> log) {
+        int n = students.size();
+        int[] partner = new int[n];
+        boolean[] pairedThisRound = new boolean[n];
+        AtomicBoolean solved = new AtomicBoolean(true);
+        AtomicLong blocking = new AtomicLong();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int[][] components = components(students, pool);
+            componentCount = components.length;
+            pool.submit(() -> IntStream.range(0, components.length).parallel().forEach(c -> {
+                int[] members = components[c];
+                List<UniversityStudent> group = new ArrayList<>(members.length);
+                for (int id : members) {
+                    group.add(students.get(id));
+                }
+                RoommatePreferenceTable table = new RoommatePreferenceTable(group);
+                boolean[] paired = new boolean[members.length];
+                int[] local = algorithm == Algorithm.IRVING
+                        ? StableRoommates.solve(table) : GaleShapley.solve(table, paired);
+                if (local == null) {
+                    solved.set(false);
+                    return;
+                }
+                for (int a = 0; a < members.length; a++) {
+                    partner[members[a]] = local[a] >= 0 ? members[local[a]] : local[a];
+                    pairedThisRound[members[a]] = paired[a];
+                }
+                blocking.addAndGet(RoommateMatching.countBlockingPairs(table, local));
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        if (!solved.get()) {
+            // One component without a stable matching leaves the whole list without one
+            Arrays.fill(partner, RoommateMatching.UNPAIRED);
+            StableRoommates.report(students, partner, false, log);
+            return new RoommateMatching(students, partner, false, 0);
+        }
+        if (algorithm == Algorithm.IRVING) {
+            StableRoommates.report(students, partner, true, log);
+        } else {
+            GaleShapley.report(students, partner, pairedThisRound, log);
+        }
+        return new RoommateMatching(students, partner, true, (int) blocking.get());
+    }
+
+    /**
+     * Returns the number of preference-graph components found by the most
+     * recent call to {@link #match(List, Consumer)}.
+     *
+     * @return the component count, or 0 before the first match
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Finds the weakly connected components of the preference graph. A
+     * preference name links to the last student carrying it, as in
+     * {@link RoommatePreferenceTable}, and existing roommates in the list are
+     * linked as well. Links are merged concurrently into a lock-free union-find.
+     *
+     * @param students the students to partition
+     * @param pool     the pool to run on
+     * @return the member ids of each component in ascending order, components
+     *         ordered by their lowest member
+     */
+    private static int[][] components(List<UniversityStudent> students, ForkJoinPool pool) {
+        int n = students.size();
+        Map<String, Integer> studentByName = new HashMap<>();
+        Map<UniversityStudent, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            studentByName.put(students.get(i).name, i);
+            ids.put(students.get(i), i);
+        }
+
+        ConcurrentUnionFind links = new ConcurrentUnionFind(n);
+        int[] root = new int[n];
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> {
+            UniversityStudent student = students.get(i);
+            for (String name : student.roommatePreferences) {
+                Integer j = studentByName.get(name);
+                if (j != null) {
+                    links.union(i, j);
+                }
+            }
+            Integer roommate = student.getRoommate() == null ? null : ids.get(student.getRoommate());
+            if (roommate != null) {
+                links.union(i, roommate);
+            }
+        })).join();
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> root[i] = links.find(i))).join();
+
+        // Roots are the lowest member, so a component is numbered when its first member is seen
+        int[] componentOf = new int[n];
+        int[] sizes = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            componentOf[i] = root[i] == i ? count++ : componentOf[root[i]];
+            sizes[componentOf[i]]++;
+        }
+        int[][] components = new int[count][];
+        for (int c = 0; c < count; c++) {
+            components[c] = new int[sizes[c]];
+            sizes[c] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            int c = componentOf[i];
+            components[c][sizes[c]++] = i;
+        }
+        return components;
+    }
+}
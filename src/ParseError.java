@@ -0,0 +1,52 @@
+/**
+ * A malformed student record found while parsing a file, with the number of
+ * the line where parsing of the record failed.
+ *
+ * @author LonghornNetwork Team
+ */
+public final class ParseError {
+    /** One-based number of the offending line */
+    private final int lineNumber;
+    /** Description of the problem, worded like the sequential parser's report */
+    private final String message;
+
+    /**
+     * Constructs a parse error.
+     *
+     * @param lineNumber the one-based number of the offending line
+     * @param message    the description of the problem
+     */
+    public ParseError(int lineNumber, String message) {
+        this.lineNumber = lineNumber;
+        this.message = message;
+    }
+
+    /**
+     * Returns the number of the line where parsing of the record failed. For
+     * a record cut off by the end of the file, this is one past the last line.
+     *
+     * @return the one-based line number
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the description of the problem.
+     *
+     * @return the message, including the student the record belongs to
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns a string representation of this error.
+     *
+     * @return the line number followed by the message
+     */
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + ": " + message;
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.*;
+
+/**
+ * Outcome of parsing a student file in error-collecting mode: every
+ * well-formed record in file order, plus every malformed one.
+ *
+ * @author LonghornNetwork Team
+ */
+public final class ParseResult {
+    /** Students parsed from well-formed records, in file order */
+    private final List<UniversityStudent> students;
+    /** Malformed records, in file order */
+    private final List<ParseError> errors;
+
+    /**
+     * Constructs a parse result.
+     *
+     * @param students the parsed students, in file order
+     * @param errors   the malformed records, in file order
+     */
+    public ParseResult(List<UniversityStudent> students, List<ParseError> errors) {
+        this.students = Collections.unmodifiableList(new ArrayList<>(students));
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    /**
+     * Returns the students parsed from well-formed records.
+     *
+     * @return an unmodifiable list of the students, in file order
+     */
+    public List<UniversityStudent> getStudents() {
+        return students;
+    }
+
+    /**
+     * Returns the malformed records.
+     *
+     * @return an unmodifiable list of the errors, in file order
+     */
+    public List<ParseError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns whether any record was malformed.
+     *
+     * @return true if there are errors
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
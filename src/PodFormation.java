@@ -1,30 +1,374 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
 /**
  * Forms pods (groups) of students using Prim's algorithm to create
- * minimum spanning trees based on connection strengths. Pods are formed
+ * maximum spanning trees based on connection strengths. Pods are formed
  * to maximize the total connection strength within each group.
- * 
+ *
  * @author LonghornNetwork Team
  */
 public class PodFormation {
-    
+    /**
+     * Algorithms for computing the maximum spanning forest that pods are cut from.
+     * Both produce a forest of the same total weight.
+     */
+    public enum SpanningAlgorithm {
+        /** Sequential Prim's algorithm with an indexed priority queue */
+        PRIM,
+        /** Parallel Boruvka rounds merged with a lock-free union-find */
+        BORUVKA
+    }
+
+    /** Bits used for the canonical edge id in a packed Boruvka edge key */
+    private static final int EDGE_BITS = 54;
+    /** Mask of the canonical edge id in a packed Boruvka edge key */
+    private static final long EDGE_MASK = (1L << EDGE_BITS) - 1;
+
+    /** The student graph whose connections define the pods */
+    private final StudentGraph graph;
+    /** Algorithm used to compute the spanning forest */
+    private final SpanningAlgorithm algorithm;
+    /** Number of worker threads used by the parallel algorithm */
+    private final int parallelism;
+    /** Total connection strength of the most recently computed spanning forest */
+    private long forestWeight;
+
     /**
      * Constructs a PodFormation instance with the given student graph.
-     * 
+     *
      * @param graph The StudentGraph representing student connections
      */
     public PodFormation(StudentGraph graph) {
-        // constructor
+        this(graph, SpanningAlgorithm.PRIM, 1);
+    }
+
+    /**
+     * Constructs a PodFormation instance with the given spanning forest algorithm.
+     *
+     * @param graph       The StudentGraph representing student connections
+     * @param algorithm   The algorithm used to compute the spanning forest
+     * @param parallelism The number of worker threads for {@link SpanningAlgorithm#BORUVKA}
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public PodFormation(StudentGraph graph, SpanningAlgorithm algorithm, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.graph = graph;
+        this.algorithm = algorithm;
+        this.parallelism = parallelism;
     }
 
     /**
      * Forms pods of the specified size using Prim's algorithm.
      * Groups students into pods based on their connection strengths,
      * ensuring that each pod contains students with strong relationships.
-     * 
+     * A maximum spanning forest is computed with the configured algorithm, and
+     * each tree is cut into connected subtrees by a greedy post-order walk: a
+     * student's group absorbs each child's leftover group while the two fit
+     * in one pod, a leftover that does not fit becomes a pod of its own, and
+     * a group that reaches {@code podSize} is closed. Every pod is therefore
+     * connected through spanning-tree edges, though some pods are smaller
+     * than podSize. Students in different connected components never share
+     * a pod, and isolated students form their own pod.
+     *
      * @param podSize The desired size of each pod
+     * @return the pods, each a list of at most podSize students
+     * @throws IllegalArgumentException if podSize is less than 1
+     */
+    public List<List<UniversityStudent>> formPods(int podSize) {
+        if (podSize < 1) {
+            throw new IllegalArgumentException("Pod size must be at least 1: " + podSize);
+        }
+        CompactStudentGraph compact = graph.toCompact();
+        int[] parent = new int[compact.size()];
+        Arrays.fill(parent, -1);
+        if (algorithm == SpanningAlgorithm.BORUVKA) {
+            boruvkaForest(compact, parent);
+        } else {
+            primForest(compact, parent);
+        }
+        return cutPods(compact, parent, podSize);
+    }
+
+    /**
+     * Returns the total connection strength of the spanning forest computed by
+     * the most recent call to {@link #formPods(int)}.
+     *
+     * @return the forest weight, or 0 before pods have been formed
+     */
+    public long getForestWeight() {
+        return forestWeight;
+    }
+
+    /**
+     * Cuts each tree of a spanning forest into connected pods of at most
+     * {@code podSize} students with a greedy post-order walk. Trees are taken
+     * in order of their root id and children in id order.
+     *
+     * @param compact the graph
+     * @param parent  the parent of each node in the forest, -1 for a root
+     * @param podSize the maximum pod size
+     * @return the pods, in the order they were closed
+     */
+    private static List<List<UniversityStudent>> cutPods(CompactStudentGraph compact, int[] parent, int podSize) {
+        int n = parent.length;
+        // Children of each node, in id order
+        int[] childStart = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) {
+                childStart[parent[v] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            childStart[v + 1] += childStart[v];
+        }
+        int[] children = new int[childStart[n]];
+        int[] fill = Arrays.copyOf(childStart, n);
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) {
+                children[fill[parent[v]]++] = v;
+            }
+        }
+
+        // The open group of node v is a linked list from v through next, ending at tail[v]
+        int[] next = new int[n];
+        int[] tail = new int[n];
+        int[] groupSize = new int[n];
+        int[] stack = new int[n];
+        int[] visitedChildren = new int[n];
+        List<List<UniversityStudent>> pods = new ArrayList<>();
+        for (int root = 0; root < n; root++) {
+            if (parent[root] >= 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            openGroup(root, next, tail, groupSize);
+            while (top > 0) {
+                int v = stack[top - 1];
+                if (childStart[v] + visitedChildren[v] < childStart[v + 1]) {
+                    int child = children[childStart[v] + visitedChildren[v]++];
+                    openGroup(child, next, tail, groupSize);
+                    stack[top++] = child;
+                    continue;
+                }
+                top--;
+                if (top == 0 || groupSize[v] == podSize) {
+                    pods.add(closeGroup(compact, v, next, groupSize));
+                } else if (groupSize[parent[v]] + groupSize[v] <= podSize) {
+                    // The tree edge to the parent keeps the merged group connected
+                    int p = parent[v];
+                    next[tail[p]] = v;
+                    tail[p] = tail[v];
+                    groupSize[p] += groupSize[v];
+                } else {
+                    pods.add(closeGroup(compact, v, next, groupSize));
+                }
+            }
+        }
+        return pods;
+    }
+
+    /**
+     * Starts a group holding a single node.
+     *
+     * @param v         the node
+     * @param next      the group links
+     * @param tail      the last node of each group
+     * @param groupSize the size of each group
+     */
+    private static void openGroup(int v, int[] next, int[] tail, int[] groupSize) {
+        next[v] = -1;
+        tail[v] = v;
+        groupSize[v] = 1;
+    }
+
+    /**
+     * Turns the group headed by a node into a pod.
+     *
+     * @param compact   the graph
+     * @param v         the head of the group
+     * @param next      the group links
+     * @param groupSize the size of each group
+     * @return the group's students, head first
+     */
+    private static List<UniversityStudent> closeGroup(CompactStudentGraph compact, int v, int[] next,
+                                                      int[] groupSize) {
+        List<UniversityStudent> pod = new ArrayList<>(groupSize[v]);
+        for (int u = v; u >= 0; u = next[u]) {
+            pod.add(compact.student(u));
+        }
+        return pod;
+    }
+
+    /**
+     * Grows a maximum spanning forest with Prim's algorithm, one tree per
+     * connected component, rooted at the component's lowest id.
+     *
+     * @param compact the graph
+     * @param parent  receives the node that connected each node to its tree,
+     *                left at -1 for a root
+     */
+    private void primForest(CompactStudentGraph compact, int[] parent) {
+        int n = compact.size();
+        int[] bestWeight = new int[n];
+        boolean[] inTree = new boolean[n];
+        // Keys are negated weights so the min-heap yields the strongest connection
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        long weight = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            heap.insertOrDecrease(root, 0.0);
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                inTree[current] = true;
+                weight += bestWeight[current];
+                for (int e = compact.edgeStart(current), end = compact.edgeEnd(current); e < end; e++) {
+                    int neighbor = compact.target(e);
+                    int w = compact.weight(e);
+                    if (!inTree[neighbor] && w > bestWeight[neighbor]) {
+                        bestWeight[neighbor] = w;
+                        parent[neighbor] = current;
+                        heap.insertOrDecrease(neighbor, -w);
+                    }
+                }
+            }
+        }
+        forestWeight = weight;
+    }
+
+    /**
+     * Computes the maximum spanning forest with parallel Boruvka rounds. In each
+     * round every component picks its strongest outgoing edge, ties broken by a
+     * canonical edge id so the choice is a strict total order and cannot form
+     * cycles; the picks are then merged concurrently through a lock-free
+     * union-find. Each tree is rooted at its lowest id.
+     *
+     * @param compact the graph
+     * @param parent  receives the parent of each node in its tree, left at -1 for a root
+     * @throws IllegalArgumentException if the graph is too large for packed edge keys
+     */
+    private void boruvkaForest(CompactStudentGraph compact, int[] parent) {
+        int n = compact.size();
+        if ((long) n * n > EDGE_MASK) {
+            throw new IllegalArgumentException("Graph too large for Boruvka edge keys: " + n + " nodes");
+        }
+        ConcurrentUnionFind components = new ConcurrentUnionFind(n);
+        AtomicLongArray best = new AtomicLongArray(n);
+        long[] picked = new long[n];
+        long[] forestEdges = new long[Math.max(0, n - 1)];
+        int forestSize = 0;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (true) {
+                pool.submit(() -> IntStream.range(0, n).parallel().forEach(u -> {
+                    best.set(u, 0L);
+                    picked[u] = 0L;
+                })).join();
+                // Strongest outgoing edge of each node, folded into its component's entry
+                pool.submit(() -> IntStream.range(0, n).parallel().forEach(u -> {
+                    int root = components.find(u);
+                    long local = 0L;
+                    for (int e = compact.edgeStart(u), end = compact.edgeEnd(u); e < end; e++) {
+                        int v = compact.target(e);
+                        if (components.find(v) != root) {
+                            local = Math.max(local, edgeKey(compact.weight(e), u, v, n));
+                        }
+                    }
+                    if (local != 0L) {
+                        best.accumulateAndGet(root, local, Math::max);
+                    }
+                })).join();
+                AtomicBoolean merged = new AtomicBoolean();
+                pool.submit(() -> IntStream.range(0, n).parallel().forEach(root -> {
+                    long key = best.get(root);
+                    if (key != 0L) {
+                        long edge = EDGE_MASK - (key & EDGE_MASK);
+                        if (components.union((int) (edge / n), (int) (edge % n))) {
+                            picked[root] = key;
+                            merged.set(true);
+                        }
+                    }
+                })).join();
+                if (!merged.get()) {
+                    break;
+                }
+                for (int root = 0; root < n; root++) {
+                    if (picked[root] != 0L) {
+                        forestEdges[forestSize++] = picked[root];
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Adjacency of the forest, then a depth-first walk of each tree to orient it
+        int[] offsets = new int[n + 1];
+        long weight = 0;
+        for (int i = 0; i < forestSize; i++) {
+            long edge = EDGE_MASK - (forestEdges[i] & EDGE_MASK);
+            offsets[(int) (edge / n) + 1]++;
+            offsets[(int) (edge % n) + 1]++;
+            weight += forestEdges[i] >>> EDGE_BITS;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] neighbors = new int[2 * forestSize];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < forestSize; i++) {
+            long edge = EDGE_MASK - (forestEdges[i] & EDGE_MASK);
+            int u = (int) (edge / n);
+            int v = (int) (edge % n);
+            neighbors[fill[u]++] = v;
+            neighbors[fill[v]++] = u;
+        }
+
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            visited[root] = true;
+            while (top > 0) {
+                int current = stack[--top];
+                for (int k = offsets[current + 1] - 1; k >= offsets[current]; k--) {
+                    int next = neighbors[k];
+                    if (!visited[next]) {
+                        visited[next] = true;
+                        parent[next] = current;
+                        stack[top++] = next;
+                    }
+                }
+            }
+        }
+        forestWeight = weight;
+    }
+
+    /**
+     * Packs an edge into a key whose natural order is by weight, then by
+     * smaller canonical id, so the maximum key is the preferred edge.
+     *
+     * @param weight the connection strength
+     * @param u      one endpoint
+     * @param v      the other endpoint
+     * @param n      the node count
+     * @return the packed key; never zero
      */
-    public void formPods(int podSize) {
-        // Method signature only
+    private static long edgeKey(int weight, int u, int v, int n) {
+        long canonical = (long) Math.min(u, v) * n + Math.max(u, v);
+        return ((long) weight << EDGE_BITS) | (EDGE_MASK - canonical);
     }
 }
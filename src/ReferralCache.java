@@ -0,0 +1,55 @@
+import java.util.List;
+
+/**
+ * Pluggable cache of referral path results keyed by graph, search mode,
+ * start student and case-folded company name. {@link ReferralPathFinder}
+ * consults the cache before searching and clears it whenever its graph
+ * changes. Because the graph and mode are part of the key, one cache may be
+ * shared by finders over different graphs or with different modes.
+ *
+ * @author LonghornNetwork Team
+ */
+public interface ReferralCache {
+    /**
+     * Looks up a cached referral path. Graphs are compared by identity.
+     *
+     * @param graph         the graph the path was searched in
+     * @param mode          the search mode that found the path
+     * @param start         the starting student
+     * @param foldedCompany the case-folded company name
+     * @return the cached path (possibly empty), or null on a miss
+     */
+    List<UniversityStudent> get(StudentGraph graph, ReferralPathFinder.SearchMode mode,
+                                UniversityStudent start, String foldedCompany);
+
+    /**
+     * Stores a referral path, evicting older entries if the cache is full.
+     *
+     * @param graph         the graph the path was searched in
+     * @param mode          the search mode that found the path
+     * @param start         the starting student
+     * @param foldedCompany the case-folded company name
+     * @param path          the path to cache
+     */
+    void put(StudentGraph graph, ReferralPathFinder.SearchMode mode, UniversityStudent start, String foldedCompany,
+             List<UniversityStudent> path);
+
+    /**
+     * Removes all cached paths.
+     */
+    void invalidateAll();
+
+    /**
+     * Returns the number of lookups that found a cached path.
+     *
+     * @return the hit count
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of lookups that found no cached path.
+     *
+     * @return the miss count
+     */
+    long getMissCount();
+}
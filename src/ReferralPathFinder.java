@@ -3,21 +3,75 @@ import java.util.*;
 /**
  * Finds referral paths to students who have interned at a specific company
  * using Dijkstra's algorithm. The algorithm treats stronger connections as
- * shorter paths by inverting connection weights.
+ * shorter paths by inverting connection weights. Searches run on the graph's
+ * compact form with reusable scratch arrays, so a finder is not thread-safe.
  * 
  * @author LonghornNetwork Team
  */
 public class ReferralPathFinder {
+    /**
+     * Search strategies for a single referral query. All modes return a path
+     * of the same (shortest) total cost; they differ in how much of the graph
+     * they explore.
+     */
+    public enum SearchMode {
+        /** Dijkstra from the start student until the first alumnus is settled */
+        FORWARD,
+        /** Dijkstra seeded from every alumnus until the start student is settled */
+        MULTI_SOURCE,
+        /** Forward and multi-source searches advanced together until they meet */
+        BIDIRECTIONAL
+    }
+
     /** The student graph used for finding referral paths */
     private StudentGraph graph;
+    /** Strategy used by findReferralPath */
+    private final SearchMode mode;
+    /** Reusable Dijkstra engine over the graph's compact form */
+    private ReferralSearchEngine engine;
+    /** Nodes settled by the most recent query */
+    private int lastSettledCount;
+    /** Optional cache of query results, or null */
+    private final ReferralCache cache;
+    /** Graph version the cache contents were computed for, or -1 before the first query */
+    private long cacheVersion;
     
     /**
-     * Constructs a ReferralPathFinder with the given student graph.
+     * Constructs a ReferralPathFinder with the given student graph, using
+     * forward search.
      * 
      * @param graph The StudentGraph representing student connections
      */
     public ReferralPathFinder(StudentGraph graph) {
+        this(graph, SearchMode.FORWARD);
+    }
+
+    /**
+     * Constructs a ReferralPathFinder with the given student graph and search mode.
+     *
+     * @param graph The StudentGraph representing student connections
+     * @param mode  The search strategy used for each query
+     */
+    public ReferralPathFinder(StudentGraph graph, SearchMode mode) {
+        this(graph, mode, null);
+    }
+
+    /**
+     * Constructs a ReferralPathFinder that serves repeated queries from a cache.
+     * The cache is cleared automatically whenever the graph's version changes.
+     * Entries are keyed by graph and search mode as well, so a cache shared
+     * with finders over other graphs never returns their paths.
+     *
+     * @param graph The StudentGraph representing student connections
+     * @param mode  The search strategy used for each query
+     * @param cache The result cache, or null to always search
+     */
+    public ReferralPathFinder(StudentGraph graph, SearchMode mode, ReferralCache cache) {
         this.graph = graph;
+        this.mode = mode;
+        this.cache = cache;
+        // Forces the cache to be cleared before its first use with this graph
+        this.cacheVersion = -1;
     }
 
     /**
@@ -28,65 +82,168 @@ public class ReferralPathFinder {
      * @param start The starting UniversityStudent
      * @param targetCompany The name of the company to find a referral path to
      * @return A list of UniversityStudent objects representing the referral path,
-     *         or an empty list if no path exists
+     *         or an empty list if no path exists or the start is not in the graph
      */
     public List<UniversityStudent> findReferralPath(UniversityStudent start, String targetCompany) {
-        Map<UniversityStudent, Double> distances = new HashMap<>();
-        Map<UniversityStudent, UniversityStudent> predecessors = new HashMap<>();
-        Set<UniversityStudent> processed = new HashSet<>();
+        if (cache == null || targetCompany == null) {
+            return search(start, targetCompany);
+        }
+        if (cacheVersion != graph.getVersion()) {
+            cache.invalidateAll();
+            cacheVersion = graph.getVersion();
+        }
+        String foldedCompany = CompanyIndex.fold(targetCompany);
+        List<UniversityStudent> cached = cache.get(graph, mode, start, foldedCompany);
+        if (cached != null) {
+            lastSettledCount = 0;
+            return new ArrayList<>(cached);
+        }
+        List<UniversityStudent> path = search(start, targetCompany);
+        cache.put(graph, mode, start, foldedCompany, path);
+        return path;
+    }
 
-        // Initialize distances
-        for (UniversityStudent node : graph.getAllNodes()) {
-            distances.put(node, Double.MAX_VALUE);
-            predecessors.put(node, null);
+    /**
+     * Runs a single referral query with the configured search mode.
+     *
+     * @param start         The starting UniversityStudent
+     * @param targetCompany The name of the company to find a referral path to
+     * @return the referral path, or an empty list if none exists
+     */
+    private List<UniversityStudent> search(UniversityStudent start, String targetCompany) {
+        lastSettledCount = 0;
+        ReferralSearchEngine search = engine();
+        CompactStudentGraph compact = search.graph();
+        int startId = compact.idOf(start);
+        if (startId < 0) {
+            return new ArrayList<>();
         }
-        distances.put(start, 0.0);
 
-        // Priority queue for Dijkstra's algorithm (using inverted weights)
-        PriorityQueue<UniversityStudent> queue = new PriorityQueue<>(Comparator.comparingDouble(distances::get));
-        queue.add(start);
+        // Companies without alumni can be answered without traversing anything
+        int company = compact.companyIndex().companyId(targetCompany);
+        if (company < 0) {
+            return new ArrayList<>();
+        }
+        BitSet alumni = compact.companyIndex().alumni(company);
 
-        while (!queue.isEmpty()) {
-            UniversityStudent current = queue.poll();
-            
-            // Skip if already processed
-            if (processed.contains(current)) {
-                continue;
+        List<UniversityStudent> path;
+        switch (mode) {
+            case MULTI_SOURCE:
+                path = search.searchFromTargets(startId, alumni) ? search.pathFrom(startId) : new ArrayList<>();
+                break;
+            case BIDIRECTIONAL:
+                path = search.searchBidirectional(startId, alumni) ? search.meetingPath() : new ArrayList<>();
+                break;
+            default:
+                int target = search.findNearest(startId, alumni::get);
+                path = target < 0 ? new ArrayList<>() : search.pathTo(target);
+                break;
+        }
+        lastSettledCount = search.settledCount();
+        return path;
+    }
+
+    /**
+     * Finds referral paths from many students to the same company at once.
+     * A single backward Dijkstra seeded from all alumni of the company builds a
+     * shortest-path tree, from which each student's path is read in time
+     * proportional to its length. Each path has the same cost as the one
+     * returned by {@link #findReferralPath(UniversityStudent, String)}.
+     *
+     * @param starts        The students to find referral paths for
+     * @param targetCompany The name of the company to find referral paths to
+     * @return each distinct start mapped to its referral path (empty if none),
+     *         in iteration order of {@code starts}
+     */
+    public Map<UniversityStudent, List<UniversityStudent>> findReferralPaths(
+            Collection<UniversityStudent> starts, String targetCompany) {
+        lastSettledCount = 0;
+        ReferralSearchEngine search = engine();
+        CompactStudentGraph compact = search.graph();
+        Map<UniversityStudent, List<UniversityStudent>> paths = new LinkedHashMap<>();
+        int company = compact.companyIndex().companyId(targetCompany);
+        if (company < 0) {
+            for (UniversityStudent start : starts) {
+                paths.put(start, new ArrayList<>());
             }
-            processed.add(current);
+            return paths;
+        }
 
-            // Check if current student has target company internship
-            for (String internship : current.previousInternships) {
-                if (internship.equalsIgnoreCase(targetCompany)) {
-                    // Reconstruct path
-                    List<UniversityStudent> referralPath = new ArrayList<>();
-                    UniversityStudent pathNode = current;
-                    while (pathNode != null) {
-                        referralPath.add(pathNode);
-                        pathNode = predecessors.get(pathNode);
-                    }
-                    Collections.reverse(referralPath);
-                    return referralPath;
-                }
+        BitSet startIds = new BitSet(compact.size());
+        for (UniversityStudent start : starts) {
+            int id = compact.idOf(start);
+            if (id >= 0) {
+                startIds.set(id);
             }
+        }
+        search.searchFromTargets(startIds, compact.companyIndex().alumni(company));
+        lastSettledCount = search.settledCount();
 
-            // Explore neighbors
-            for (StudentGraph.Edge edge : graph.getNeighbors(current)) {
-                UniversityStudent neighbor = edge.neighbor;
-                if (processed.contains(neighbor)) {
-                    continue;
-                }
+        for (UniversityStudent start : starts) {
+            int id = compact.idOf(start);
+            paths.put(start, id >= 0 && search.settledFromTargets(id) ? search.pathFrom(id) : new ArrayList<>());
+        }
+        return paths;
+    }
 
-                // Use inverted weight (stronger connection = shorter path)
-                double newDistance = distances.get(current) + (1.0 / edge.weight);
-                if (newDistance < distances.get(neighbor)) {
-                    distances.put(neighbor, newDistance);
-                    predecessors.put(neighbor, current);
-                    queue.add(neighbor);
-                }
+    /**
+     * Finds up to {@code k} alternative referral paths from a student to the
+     * alumni of a company, cheapest first, using Yen's k-shortest simple paths.
+     * The first path has the same cost as the one returned by
+     * {@link #findReferralPath(UniversityStudent, String)}; each later path is
+     * a distinct chain that ends at the first alumnus it reaches.
+     *
+     * @param start         The starting UniversityStudent
+     * @param targetCompany The name of the company to find referral paths to
+     * @param k             The maximum number of paths to return
+     * @return up to k referral paths in order of non-decreasing cost, or an empty
+     *         list if no path exists or the start is not in the graph
+     */
+    public List<List<UniversityStudent>> findAlternativeReferralPaths(UniversityStudent start,
+                                                                      String targetCompany, int k) {
+        lastSettledCount = 0;
+        CompactStudentGraph compact = engine().graph();
+        List<List<UniversityStudent>> paths = new ArrayList<>();
+        int startId = compact.idOf(start);
+        int company = compact.companyIndex().companyId(targetCompany);
+        if (startId < 0 || company < 0) {
+            return paths;
+        }
+
+        KShortestReferralPaths search = new KShortestReferralPaths(compact, compact.companyIndex().alumni(company));
+        for (int[] ids : search.find(startId, k)) {
+            List<UniversityStudent> path = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                path.add(compact.student(id));
             }
+            paths.add(path);
         }
+        lastSettledCount = search.settledCount();
+        return paths;
+    }
+
+    /**
+     * Returns the number of students settled by the most recent query, summed
+     * over both directions for bidirectional search. Queries answered without
+     * searching report zero.
+     *
+     * @return the settled node count of the last query
+     */
+    public int getLastSettledCount() {
+        return lastSettledCount;
+    }
 
-        return new ArrayList<>();
+    /**
+     * Returns the search engine for the current graph version, rebuilding it
+     * if the graph has been modified since the last query.
+     *
+     * @return an engine over the graph's current compact form
+     */
+    private ReferralSearchEngine engine() {
+        CompactStudentGraph compact = graph.toCompact();
+        if (engine == null || engine.graph() != compact) {
+            engine = new ReferralSearchEngine(compact);
+        }
+        return engine;
     }
 }
@@ -0,0 +1,367 @@
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Allocation-free Dijkstra engine over a {@link CompactStudentGraph}.
+ * Distances, predecessors and settled flags live in reusable arrays that are
+ * lazily reset with an epoch stamp, and the frontier is an {@link IndexedMinHeap}
+ * with decrease-key, so a query touches only the nodes it reaches. Besides a
+ * plain forward search, the engine can search backwards from all alumni of a
+ * company at once, or from both ends until the two searches meet. An engine is
+ * bound to one graph and is not thread-safe.
+ *
+ * @author LonghornNetwork Team
+ */
+final class ReferralSearchEngine {
+    /** Inverted edge cost for each possible connection strength */
+    static final double[] EDGE_COST = new double[CompactStudentGraph.MAX_WEIGHT + 1];
+
+    static {
+        for (int w = 1; w < EDGE_COST.length; w++) {
+            EDGE_COST[w] = 1.0 / w;
+        }
+    }
+
+    /** The graph being searched */
+    private final CompactStudentGraph graph;
+    /** Search state grown from the start student */
+    private final Side forward;
+    /** Search state grown from the target company's alumni */
+    private final Side backward;
+    /** Stamp of the current query */
+    private int epoch;
+    /** Node where the bidirectional searches met on the best path so far */
+    private int meetingNode;
+    /** Length of the best path found by the bidirectional search so far */
+    private double bestLength;
+
+    /**
+     * Constructs an engine with scratch space sized for the given graph.
+     *
+     * @param graph the graph to search
+     */
+    ReferralSearchEngine(CompactStudentGraph graph) {
+        this.graph = graph;
+        forward = new Side(graph.size());
+        backward = new Side(graph.size());
+    }
+
+    /**
+     * Returns the graph this engine searches.
+     *
+     * @return the compact graph
+     */
+    CompactStudentGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Runs Dijkstra from a start node until the first node accepted by
+     * {@code isTarget} is settled. Edge costs are {@code 1 / weight}, so
+     * stronger connections are shorter.
+     *
+     * @param start    the start node id
+     * @param isTarget accepts the node ids that end the search
+     * @return the id of the nearest target, or -1 if none is reachable
+     */
+    int findNearest(int start, IntPredicate isTarget) {
+        beginQuery();
+        forward.reach(start, 0.0, -1);
+        while (!forward.frontier.isEmpty()) {
+            int current = forward.settleNext();
+            if (isTarget.test(current)) {
+                return current;
+            }
+            forward.relaxNeighbors(current);
+        }
+        return -1;
+    }
+
+    /**
+     * Searches backwards from every target at once until the start node is
+     * settled. Because the graph is undirected, following predecessors from
+     * the start leads to its nearest target.
+     *
+     * @param start   the start node id
+     * @param targets the target node ids
+     * @return true if the start node is reachable from some target
+     */
+    boolean searchFromTargets(int start, BitSet targets) {
+        beginQuery();
+        seed(backward, targets);
+        while (!backward.frontier.isEmpty()) {
+            int current = backward.settleNext();
+            if (current == start) {
+                return true;
+            }
+            backward.relaxNeighbors(current);
+        }
+        return false;
+    }
+
+    /**
+     * Searches backwards from every target at once until all the given start
+     * nodes are settled, leaving a shortest-path tree toward the targets from
+     * which each start's path can be read with {@link #pathFrom(int)}.
+     *
+     * @param starts  the start node ids
+     * @param targets the target node ids
+     */
+    void searchFromTargets(BitSet starts, BitSet targets) {
+        beginQuery();
+        seed(backward, targets);
+        int pending = starts.cardinality();
+        while (pending > 0 && !backward.frontier.isEmpty()) {
+            int current = backward.settleNext();
+            if (starts.get(current)) {
+                pending--;
+            }
+            backward.relaxNeighbors(current);
+        }
+    }
+
+    /**
+     * Returns whether the most recent backward query settled a node, i.e.
+     * whether {@link #pathFrom(int)} is valid for it.
+     *
+     * @param node the node id
+     * @return true if the node is connected to a target
+     */
+    boolean settledFromTargets(int node) {
+        return backward.settledEpoch[node] == epoch;
+    }
+
+    /**
+     * Searches from the start node and from every target simultaneously,
+     * always advancing the side with the smaller frontier key, and stops once
+     * no shorter connection between the two searches can exist.
+     *
+     * @param start   the start node id
+     * @param targets the target node ids
+     * @return true if a path was found
+     */
+    boolean searchBidirectional(int start, BitSet targets) {
+        beginQuery();
+        meetingNode = -1;
+        bestLength = Double.POSITIVE_INFINITY;
+        seed(backward, targets);
+        forward.reach(start, 0.0, -1);
+        recordMeeting(start);
+
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()
+                && forward.frontier.peekKey() + backward.frontier.peekKey() < bestLength) {
+            Side side = forward.frontier.peekKey() <= backward.frontier.peekKey() ? forward : backward;
+            Side other = side == forward ? backward : forward;
+            int current = side.settleNext();
+            double base = side.distance[current];
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                int neighbor = graph.target(e);
+                if (side.settledEpoch[neighbor] != epoch
+                        && side.reach(neighbor, base + EDGE_COST[graph.weight(e)], current)
+                        && other.reachedEpoch[neighbor] == epoch) {
+                    recordMeeting(neighbor);
+                }
+            }
+        }
+        forward.frontier.clear();
+        backward.frontier.clear();
+        return meetingNode >= 0;
+    }
+
+    /**
+     * Returns the path from the query's start node to the given node by
+     * following forward predecessors.
+     *
+     * @param end a node settled by the most recent forward query
+     * @return the students on the path, start first
+     */
+    List<UniversityStudent> pathTo(int end) {
+        List<UniversityStudent> path = new ArrayList<>();
+        forward.appendChain(end, path);
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Returns the path from a node to its nearest target by following backward
+     * predecessors.
+     *
+     * @param start a node settled by the most recent backward query
+     * @return the students on the path, start first
+     */
+    List<UniversityStudent> pathFrom(int start) {
+        List<UniversityStudent> path = new ArrayList<>();
+        backward.appendChain(start, path);
+        return path;
+    }
+
+    /**
+     * Returns the path found by the most recent bidirectional query.
+     *
+     * @return the students on the path, start first
+     */
+    List<UniversityStudent> meetingPath() {
+        List<UniversityStudent> path = pathTo(meetingNode);
+        // The meeting node ends the forward half and starts the backward half
+        path.remove(path.size() - 1);
+        backward.appendChain(meetingNode, path);
+        return path;
+    }
+
+    /**
+     * Returns the number of nodes settled by the most recent query, summed over
+     * both search directions.
+     *
+     * @return the settled node count
+     */
+    int settledCount() {
+        return forward.settledCount + backward.settledCount;
+    }
+
+    /**
+     * Starts a new query, invalidating all per-node state in O(1).
+     */
+    private void beginQuery() {
+        forward.begin();
+        backward.begin();
+        if (++epoch == Integer.MAX_VALUE) {
+            forward.resetStamps();
+            backward.resetStamps();
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Reaches every target with distance zero.
+     *
+     * @param side    the side to seed
+     * @param targets the target node ids
+     */
+    private void seed(Side side, BitSet targets) {
+        for (int t = targets.nextSetBit(0); t >= 0; t = targets.nextSetBit(t + 1)) {
+            side.reach(t, 0.0, -1);
+        }
+    }
+
+    /**
+     * Updates the best bidirectional path if the two searches meet at the given
+     * node with a shorter total length.
+     *
+     * @param node a node reached by both sides in the current query
+     */
+    private void recordMeeting(int node) {
+        if (backward.reachedEpoch[node] != epoch) {
+            return;
+        }
+        double length = forward.distance[node] + backward.distance[node];
+        if (length < bestLength) {
+            bestLength = length;
+            meetingNode = node;
+        }
+    }
+
+    /**
+     * Per-direction search state.
+     */
+    private final class Side {
+        /** Tentative distance of each node, valid when reached in the current epoch */
+        private final double[] distance;
+        /** Predecessor of each node on its best path, valid when reached in the current epoch */
+        private final int[] predecessor;
+        /** Epoch in which each node was last reached */
+        private final int[] reachedEpoch;
+        /** Epoch in which each node was last settled */
+        private final int[] settledEpoch;
+        /** Frontier of reached but unsettled nodes */
+        private final IndexedMinHeap frontier;
+        /** Nodes settled by this side in the current query */
+        private int settledCount;
+
+        /**
+         * Allocates state for a graph with {@code n} nodes.
+         *
+         * @param n the node count
+         */
+        Side(int n) {
+            distance = new double[n];
+            predecessor = new int[n];
+            reachedEpoch = new int[n];
+            settledEpoch = new int[n];
+            frontier = new IndexedMinHeap(n);
+        }
+
+        /**
+         * Clears the frontier and counters for a new query.
+         */
+        void begin() {
+            frontier.clear();
+            settledCount = 0;
+        }
+
+        /**
+         * Clears all epoch stamps after the epoch counter wraps.
+         */
+        void resetStamps() {
+            Arrays.fill(reachedEpoch, 0);
+            Arrays.fill(settledEpoch, 0);
+        }
+
+        /**
+         * Removes the closest frontier node and marks it settled.
+         *
+         * @return the settled node
+         */
+        int settleNext() {
+            int current = frontier.poll();
+            settledEpoch[current] = epoch;
+            settledCount++;
+            return current;
+        }
+
+        /**
+         * Relaxes every edge leaving a settled node.
+         *
+         * @param current the settled node
+         */
+        void relaxNeighbors(int current) {
+            double base = distance[current];
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                int neighbor = graph.target(e);
+                if (settledEpoch[neighbor] != epoch) {
+                    reach(neighbor, base + EDGE_COST[graph.weight(e)], current);
+                }
+            }
+        }
+
+        /**
+         * Records a tentative distance for a node if it improves on the current one.
+         *
+         * @param node        the node reached
+         * @param newDistance the distance via {@code via}
+         * @param via         the predecessor, or -1 for a source
+         * @return true if the node's distance improved
+         */
+        boolean reach(int node, double newDistance, int via) {
+            if (reachedEpoch[node] == epoch && newDistance >= distance[node]) {
+                return false;
+            }
+            reachedEpoch[node] = epoch;
+            distance[node] = newDistance;
+            predecessor[node] = via;
+            frontier.insertOrDecrease(node, newDistance);
+            return true;
+        }
+
+        /**
+         * Appends a node and its predecessors, in predecessor order, to a path.
+         *
+         * @param node the first node to append
+         * @param path the path being built
+         */
+        void appendChain(int node, List<UniversityStudent> path) {
+            for (; node >= 0; node = predecessor[node]) {
+                path.add(graph.student(node));
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+import java.util.*;
+
+/**
+ * Immutable result of a roommate matching run. Students are addressed by
+ * their position in the matched list; the result holds each student's partner
+ * id together with stability metrics, and changes no student until
+ * {@link #apply()} is called.
+ *
+ * @author LonghornNetwork Team
+ */
+public final class RoommateMatching {
+    /** Partner id of a student without a roommate */
+    public static final int UNPAIRED = -1;
+    /** Partner id of a student that kept a roommate outside the matched list */
+    public static final int EXTERNAL = -2;
+
+    /** The matched students, indexed by id */
+    private final List<UniversityStudent> students;
+    /** Partner id of each student */
+    private final int[] partners;
+    /** Whether the matcher produced a matching at all */
+    private final boolean solved;
+    /** Number of pairs formed within the list */
+    private final int pairCount;
+    /** Number of students without a roommate */
+    private final int unpairedCount;
+    /** Number of mutually acceptable pairs that would both rather be together */
+    private final int blockingPairCount;
+
+    /**
+     * Builds a result and counts its pairs.
+     *
+     * @param students          the matched students, indexed by id
+     * @param partners          the partner id of each student; the array is retained
+     * @param solved            false if the matcher proved that no acceptable matching exists
+     * @param blockingPairCount the number of blocking pairs, from {@link #countBlockingPairs}
+     */
+    RoommateMatching(List<UniversityStudent> students, int[] partners, boolean solved, int blockingPairCount) {
+        this.students = Collections.unmodifiableList(new ArrayList<>(students));
+        this.partners = partners;
+        this.solved = solved;
+        this.blockingPairCount = blockingPairCount;
+        int paired = 0;
+        int unpaired = 0;
+        for (int partner : partners) {
+            if (partner >= 0) {
+                paired++;
+            } else if (partner == UNPAIRED) {
+                unpaired++;
+            }
+        }
+        this.pairCount = paired / 2;
+        this.unpairedCount = unpaired;
+    }
+
+    /**
+     * Counts pairs of students who list each other and each prefer the other
+     * to their current situation. Being unpaired, or paired with someone left
+     * off one's list, ranks below every listed student. Both students of a
+     * blocking pair name each other, so counts over disjoint preference
+     * components add up.
+     *
+     * @param table    the preference and rank tables the matching was computed from
+     * @param partners the partner id of each student
+     * @return the number of blocking pairs
+     */
+    static int countBlockingPairs(RoommatePreferenceTable table, int[] partners) {
+        int n = partners.length;
+        int[] partnerRank = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (partners[i] >= 0) {
+                partnerRank[i] = table.rank(i, partners[i]);
+            } else if (partners[i] == EXTERNAL) {
+                partnerRank[i] = table.rankOfName(i, table.student(i).getRoommate().name);
+            } else {
+                partnerRank[i] = -1;
+            }
+        }
+
+        int blocking = 0;
+        for (int i = 0; i < n; i++) {
+            int[] prefs = table.preferences(i);
+            int limit = partnerRank[i] < 0 ? prefs.length : partnerRank[i];
+            for (int k = 0; k < limit; k++) {
+                int j = prefs[k];
+                if (j > i && partners[i] != j && table.acceptable(i, k)) {
+                    int back = table.rank(j, i);
+                    if (partnerRank[j] < 0 || back < partnerRank[j]) {
+                        blocking++;
+                    }
+                }
+            }
+        }
+        return blocking;
+    }
+
+    /**
+     * Returns the number of students in the matched list.
+     *
+     * @return the student count
+     */
+    public int size() {
+        return partners.length;
+    }
+
+    /**
+     * Returns the matched students in id order.
+     *
+     * @return an unmodifiable list of the students
+     */
+    public List<UniversityStudent> getStudents() {
+        return students;
+    }
+
+    /**
+     * Returns the partner id of a student.
+     *
+     * @param id a student id
+     * @return the partner's id, {@link #UNPAIRED}, or {@link #EXTERNAL}
+     */
+    public int partnerOf(int id) {
+        return partners[id];
+    }
+
+    /**
+     * Returns the partner id of every student.
+     *
+     * @return a copy of the partner array
+     */
+    public int[] getPartners() {
+        return partners.clone();
+    }
+
+    /**
+     * Returns whether the matcher produced a matching. Irving's algorithm
+     * reports false when no stable matching exists; every student is then
+     * unpaired in this result.
+     *
+     * @return true if a matching was produced
+     */
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Returns whether the matching was produced and has no blocking pair.
+     *
+     * @return true if the matching is stable
+     */
+    public boolean isStable() {
+        return solved && blockingPairCount == 0;
+    }
+
+    /**
+     * Returns the number of pairs formed within the list.
+     *
+     * @return the pair count
+     */
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    /**
+     * Returns the number of students left without a roommate.
+     *
+     * @return the unpaired count
+     */
+    public int getUnpairedCount() {
+        return unpairedCount;
+    }
+
+    /**
+     * Returns the number of blocking pairs: students who list each other and
+     * would both rather room together than keep their current situation.
+     *
+     * @return the blocking pair count, 0 for an unsolved result
+     */
+    public int getBlockingPairCount() {
+        return blockingPairCount;
+    }
+
+    /**
+     * Writes the matching to the students' roommate fields. Students keeping
+     * an outside roommate are left alone; an outside roommate displaced from
+     * a student in the list loses its pairing. An unsolved result changes
+     * nothing.
+     */
+    public void apply() {
+        if (!solved) {
+            return;
+        }
+        Set<UniversityStudent> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        matched.addAll(students);
+        for (int i = 0; i < partners.length; i++) {
+            if (partners[i] == EXTERNAL) {
+                continue;
+            }
+            UniversityStudent student = students.get(i);
+            UniversityStudent previous = student.getRoommate();
+            if (previous != null && !matched.contains(previous)) {
+                previous.setRoommate(null);
+            }
+            student.setRoommate(partners[i] < 0 ? null : students.get(partners[i]));
+        }
+    }
+}
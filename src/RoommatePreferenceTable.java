@@ -0,0 +1,200 @@
+import java.util.*;
+
+/**
+ * Primitive preference and rank tables for roommate matching. Students are
+ * addressed by their position in the input list, preference lists are
+ * resolved to int ids once, and "where does X appear in Y's list" is answered
+ * in O(1) by an open-addressing hash keyed by (student, name id). Ranks follow
+ * {@link List#indexOf(Object)} on the original name lists, so the first
+ * occurrence of a duplicated name wins and names are compared exactly.
+ *
+ * @author LonghornNetwork Team
+ */
+final class RoommatePreferenceTable {
+    /** Id stored for a preference naming no student in the list */
+    static final int UNKNOWN = -1;
+
+    /** Students indexed by id */
+    private final List<UniversityStudent> students;
+    /** Resolved preference list of each student, UNKNOWN for unmatched names */
+    private final int[][] preferences;
+    /** Name id of each student's own name */
+    private final int[] nameIds;
+    /** Name ids used by this table, covering student names and preference names */
+    private final Map<String, Integer> nameDictionary = new HashMap<>();
+    /** Open-addressing keys: {@code (studentId << 32 | nameId) + 1}, or 0 for an empty slot */
+    private final long[] rankKeys;
+    /** Rank stored alongside each key */
+    private final int[] rankValues;
+
+    /**
+     * Builds the tables for the given students. When names repeat, a
+     * preference resolves to the last student with that name, as a name map
+     * built in list order would.
+     *
+     * @param students the students to match
+     */
+    RoommatePreferenceTable(List<UniversityStudent> students) {
+        this.students = students;
+        int n = students.size();
+        Map<String, Integer> studentByName = new HashMap<>();
+        nameIds = new int[n];
+        int entries = 0;
+        for (int i = 0; i < n; i++) {
+            UniversityStudent student = students.get(i);
+            studentByName.put(student.name, i);
+            nameIds[i] = nameId(student.name);
+            entries += student.roommatePreferences.size();
+        }
+
+        preferences = new int[n][];
+        rankKeys = new long[Math.max(2, Integer.highestOneBit(Math.max(1, entries)) << 2)];
+        rankValues = new int[rankKeys.length];
+        for (int i = 0; i < n; i++) {
+            List<String> names = students.get(i).roommatePreferences;
+            int[] resolved = new int[names.size()];
+            for (int k = 0; k < resolved.length; k++) {
+                String name = names.get(k);
+                resolved[k] = studentByName.getOrDefault(name, UNKNOWN);
+                putRankIfAbsent(i, nameId(name), k);
+            }
+            preferences[i] = resolved;
+        }
+    }
+
+    /**
+     * Returns the number of students.
+     *
+     * @return the student count
+     */
+    int size() {
+        return students.size();
+    }
+
+    /**
+     * Returns the student with the given id.
+     *
+     * @param id a student id
+     * @return the student
+     */
+    UniversityStudent student(int id) {
+        return students.get(id);
+    }
+
+    /**
+     * Returns a student's resolved preference list.
+     *
+     * @param id a student id
+     * @return preferred student ids in order, UNKNOWN for unmatched names; must not be modified
+     */
+    int[] preferences(int id) {
+        return preferences[id];
+    }
+
+    /**
+     * Returns where a student appears in another student's preference list.
+     *
+     * @param owner     the student whose list is consulted
+     * @param candidate the student looked up
+     * @return the candidate's position, or -1 if the candidate's name is absent
+     */
+    int rank(int owner, int candidate) {
+        return rankOfName(owner, nameIds[candidate]);
+    }
+
+    /**
+     * Returns whether a preference entry is the first occurrence of another
+     * student in the list who names the owner back; only such entries describe
+     * a mutually acceptable pair.
+     *
+     * @param owner the student whose list is consulted
+     * @param k     the position in the owner's list
+     * @return true if the entry is mutually acceptable
+     */
+    boolean acceptable(int owner, int k) {
+        int candidate = preferences[owner][k];
+        if (candidate == UNKNOWN || candidate == owner || rank(owner, candidate) != k) {
+            return false;
+        }
+        int back = rank(candidate, owner);
+        return back >= 0 && preferences[candidate][back] == owner;
+    }
+
+    /**
+     * Returns where a name appears in a student's preference list; used for
+     * partners that are not part of the table.
+     *
+     * @param owner the student whose list is consulted
+     * @param name  the name looked up
+     * @return the name's position, or -1 if absent
+     */
+    int rankOfName(int owner, String name) {
+        Integer id = nameDictionary.get(name);
+        return id == null ? -1 : rankOfName(owner, id);
+    }
+
+    /**
+     * Assigns or returns the table-local id of a name.
+     *
+     * @param name the name
+     * @return the name id
+     */
+    private int nameId(String name) {
+        Integer id = nameDictionary.get(name);
+        if (id == null) {
+            id = nameDictionary.size();
+            nameDictionary.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Looks up the rank stored for a (student, name id) pair.
+     *
+     * @param owner  the student whose list is consulted
+     * @param nameId the name id looked up
+     * @return the stored rank, or -1 if absent
+     */
+    private int rankOfName(int owner, int nameId) {
+        long key = ((long) owner << 32 | nameId) + 1;
+        int mask = rankKeys.length - 1;
+        for (int slot = mix(key) & mask; rankKeys[slot] != 0; slot = (slot + 1) & mask) {
+            if (rankKeys[slot] == key) {
+                return rankValues[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a rank unless the pair already has one, keeping the first occurrence.
+     *
+     * @param owner  the student whose list is being indexed
+     * @param nameId the name id at this position
+     * @param rank   the position in the list
+     */
+    private void putRankIfAbsent(int owner, int nameId, int rank) {
+        long key = ((long) owner << 32 | nameId) + 1;
+        int mask = rankKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (rankKeys[slot] != 0) {
+            if (rankKeys[slot] == key) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        rankKeys[slot] = key;
+        rankValues[slot] = rank;
+    }
+
+    /**
+     * Scrambles a key so that consecutive ids spread across the table.
+     *
+     * @param key the key
+     * @return a well-mixed hash
+     */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,363 @@
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Implements Irving's stable roommates algorithm. Unlike the Gale-Shapley
+ * variant in {@link GaleShapley}, which forces a two-sided proposal scheme onto
+ * a one-sided problem, this finds a stable matching whenever one exists and
+ * reports when none does. Preference lists may be incomplete: two students are
+ * mutually acceptable only if each names the other, and a student with no
+ * acceptable partner left after the first phase stays unpaired.
+ *
+ * <p>Lists are never copied or edited. Each student keeps first, second and
+ * last pointers into its resolved list, and an entry is live only while it
+ * lies inside both students' pointer windows, so every deletion is a pointer
+ * move. All pointers move monotonically, which bounds the whole run by the
+ * total length of the preference lists, O(n&sup2;) in the worst case.
+ *
+ * @author LonghornNetwork Team
+ */
+public class StableRoommates {
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private StableRoommates() {
+    }
+
+    /**
+     * Assigns roommates using Irving's algorithm and prints the pairs. If no
+     * stable matching exists, no roommate is changed.
+     *
+     * @param students The list of UniversityStudent objects to match
+     * @return true if a stable matching was found and applied, false if none exists
+     */
+    public static boolean assignRoommates(List<UniversityStudent> students) {
+        RoommateMatching matching = match(students, System.out::println);
+        matching.apply();
+        return matching.isSolved();
+    }
+
+    /**
+     * Computes a stable matching without printing or changing any student.
+     * Existing roommates are ignored.
+     *
+     * @param students The list of UniversityStudent objects to match
+     * @return the matching, unsolved if no stable matching exists
+     */
+    public static RoommateMatching match(List<UniversityStudent> students) {
+        return match(students, null);
+    }
+
+    /**
+     * Computes a stable matching without changing any student, reporting the
+     * pairs to a log sink.
+     *
+     * @param students The list of UniversityStudent objects to match
+     * @param log      receives the report line by line, or null for no report
+     * @return the matching, unsolved if no stable matching exists
+     */
+    public static RoommateMatching match(List<UniversityStudent> students, Consumer<String> log) {
+        RoommatePreferenceTable table = new RoommatePreferenceTable(students);
+        int[] partner = solve(table);
+        if (partner == null) {
+            partner = new int[table.size()];
+            Arrays.fill(partner, RoommateMatching.UNPAIRED);
+            report(students, partner, false, log);
+            return new RoommateMatching(students, partner, false, 0);
+        }
+        report(students, partner, true, log);
+        return new RoommateMatching(students, partner, true, RoommateMatching.countBlockingPairs(table, partner));
+    }
+
+    /**
+     * Writes the pairs, or the absence of a stable matching, to a log sink.
+     *
+     * @param students the matched students, indexed by id
+     * @param partner  the partner id of each student
+     * @param solved   false if no stable matching exists
+     * @param log      receives the report line by line, or null for no report
+     */
+    static void report(List<UniversityStudent> students, int[] partner, boolean solved, Consumer<String> log) {
+        if (log == null) {
+            return;
+        }
+        log.accept("\nRoommate Pairings (Irving):");
+        if (!solved) {
+            log.accept("No stable roommate matching exists");
+            return;
+        }
+        for (int i = 0; i < partner.length; i++) {
+            if (partner[i] > i) {
+                log.accept(students.get(i).name + " paired with " + students.get(partner[i]).name);
+            }
+        }
+    }
+
+    /**
+     * Computes a stable matching over the students of a preference table.
+     *
+     * @param table the preference and rank tables
+     * @return the partner of each student, -1 if unpaired, or null if no stable matching exists
+     */
+    static int[] solve(RoommatePreferenceTable table) {
+        return new Solver(table).solve();
+    }
+
+    /**
+     * State of one run of the algorithm.
+     */
+    private static final class Solver {
+        /** Mutually acceptable partners of each student, in preference order */
+        private final int[][] lists;
+        /** For each list entry, the position of the owner in the partner's list */
+        private final int[][] mirror;
+        /** Position of the first possibly live entry in each list */
+        private final int[] first;
+        /** Position of the second possibly live entry in each list, valid when greater than first */
+        private final int[] second;
+        /** Position of the last possibly live entry in each list */
+        private final int[] last;
+
+        /**
+         * Resolves the mutually acceptable lists of every student.
+         *
+         * @param table the preference and rank tables
+         */
+        Solver(RoommatePreferenceTable table) {
+            int n = table.size();
+            lists = new int[n][];
+            mirror = new int[n][];
+            first = new int[n];
+            second = new int[n];
+            last = new int[n];
+
+            // Position of each original preference entry in the acceptable list, -1 if dropped
+            int[][] positionOf = new int[n][];
+            int[] buffer = new int[16];
+            for (int i = 0; i < n; i++) {
+                int[] prefs = table.preferences(i);
+                positionOf[i] = new int[prefs.length];
+                int size = 0;
+                for (int k = 0; k < prefs.length; k++) {
+                    positionOf[i][k] = -1;
+                    if (table.acceptable(i, k)) {
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, size * 2);
+                        }
+                        positionOf[i][k] = size;
+                        buffer[size++] = prefs[k];
+                    }
+                }
+                lists[i] = Arrays.copyOf(buffer, size);
+                last[i] = size - 1;
+            }
+            for (int i = 0; i < n; i++) {
+                int[] list = lists[i];
+                int[] back = new int[list.length];
+                for (int p = 0; p < list.length; p++) {
+                    back[p] = positionOf[list[p]][table.rank(list[p], i)];
+                }
+                mirror[i] = back;
+            }
+        }
+
+        /**
+         * Runs both phases.
+         *
+         * @return the partner of each student, -1 if unpaired, or null if no stable matching exists
+         */
+        int[] solve() {
+            proposalPhase();
+            if (!rotationPhase()) {
+                return null;
+            }
+            int n = lists.length;
+            int[] partner = new int[n];
+            for (int i = 0; i < n; i++) {
+                int p = firstLive(i);
+                partner[i] = p < 0 ? -1 : lists[i][p];
+            }
+            return partner;
+        }
+
+        /**
+         * Phase 1: every student proposes down its list; a student receiving a
+         * proposal holds it and drops everyone it likes less, which also
+         * rejects the proposal it held before.
+         */
+        private void proposalPhase() {
+            int n = lists.length;
+            int[] holding = new int[n];
+            Arrays.fill(holding, -1);
+            int[] free = new int[n];
+            int freeCount = 0;
+            for (int i = n - 1; i >= 0; i--) {
+                free[freeCount++] = i;
+            }
+            while (freeCount > 0) {
+                int proposer = free[--freeCount];
+                int p = firstLive(proposer);
+                if (p < 0) {
+                    // Rejected by everyone acceptable; unpaired in every stable matching
+                    continue;
+                }
+                int target = lists[proposer][p];
+                int rejected = holding[target];
+                // A live entry always lies before the target's current holder
+                holding[target] = proposer;
+                last[target] = mirror[proposer][p];
+                if (rejected >= 0) {
+                    free[freeCount++] = rejected;
+                }
+            }
+        }
+
+        /**
+         * Phase 2: repeatedly exposes a rotation among students whose lists
+         * still hold several entries and eliminates it. Rotations are searched
+         * from the lowest such student, and the walk that exposed one is kept
+         * and continued after its elimination, so the total walking stays
+         * within the list lengths.
+         *
+         * @return false if a list ran empty, meaning no stable matching exists
+         */
+        private boolean rotationPhase() {
+            int n = lists.length;
+            int[] walk = new int[n + 1];
+            int[] walkIndex = new int[n];
+            Arrays.fill(walkIndex, -1);
+            int walkSize = 0;
+            int cursor = 0;
+
+            while (true) {
+                if (walkSize == 0) {
+                    while (cursor < n && secondLive(cursor) < 0) {
+                        cursor++;
+                    }
+                    if (cursor == n) {
+                        return true;
+                    }
+                    walk[walkSize] = cursor;
+                    walkIndex[cursor] = walkSize++;
+                }
+
+                // Extend the walk p -> last(second(p)) until it revisits a student
+                int next = -1;
+                while (walkSize > 0) {
+                    int p = walk[walkSize - 1];
+                    int s = secondLive(p);
+                    if (s < 0) {
+                        if (firstLive(p) < 0) {
+                            return false;
+                        }
+                        // Settled on one partner by an earlier elimination; resume below it
+                        walkIndex[p] = -1;
+                        walkSize--;
+                        continue;
+                    }
+                    int q = lists[p][s];
+                    int l = lastLive(q);
+                    next = lists[q][l];
+                    if (walkIndex[next] >= 0) {
+                        break;
+                    }
+                    walk[walkSize] = next;
+                    walkIndex[next] = walkSize++;
+                }
+                if (walkSize == 0) {
+                    continue;
+                }
+
+                // The cycle from next's first visit is the rotation; compute every cut first
+                int start = walkIndex[next];
+                int size = walkSize - start;
+                int[] cutOwners = new int[size];
+                int[] cutPositions = new int[size];
+                for (int r = 0; r < size; r++) {
+                    int x = walk[start + r];
+                    int s = secondLive(x);
+                    cutOwners[r] = lists[x][s];
+                    cutPositions[r] = mirror[x][s];
+                }
+                for (int r = start; r < walkSize; r++) {
+                    walkIndex[walk[r]] = -1;
+                }
+                walkSize = start;
+
+                // Each second choice drops everyone it likes less than the rotating student
+                for (int r = 0; r < size; r++) {
+                    int y = cutOwners[r];
+                    int oldLast = last[y];
+                    last[y] = cutPositions[r];
+                    for (int p = cutPositions[r] + 1; p <= oldLast; p++) {
+                        if (firstLive(lists[y][p]) < 0) {
+                            return false;
+                        }
+                    }
+                }
+                for (int r = 0; r < size; r++) {
+                    if (firstLive(cutOwners[r]) < 0) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns whether a list entry is still present on both sides.
+         *
+         * @param owner the list owner
+         * @param p     the position in the owner's list
+         * @return true if the entry is live
+         */
+        private boolean live(int owner, int p) {
+            return p >= first[owner] && p <= last[owner] && mirror[owner][p] <= last[lists[owner][p]];
+        }
+
+        /**
+         * Advances a student's first pointer to its first live entry.
+         *
+         * @param i the student
+         * @return the position of the first live entry, or -1 if the list is empty
+         */
+        private int firstLive(int i) {
+            while (first[i] <= last[i] && !live(i, first[i])) {
+                first[i]++;
+            }
+            return first[i] <= last[i] ? first[i] : -1;
+        }
+
+        /**
+         * Advances a student's second pointer to its second live entry.
+         *
+         * @param i the student
+         * @return the position of the second live entry, or -1 if there is none
+         */
+        private int secondLive(int i) {
+            int f = firstLive(i);
+            if (f < 0) {
+                return -1;
+            }
+            if (second[i] <= f) {
+                second[i] = f + 1;
+            }
+            while (second[i] <= last[i] && !live(i, second[i])) {
+                second[i]++;
+            }
+            return second[i] <= last[i] ? second[i] : -1;
+        }
+
+        /**
+         * Moves a student's last pointer back to its last live entry.
+         *
+         * @param i the student
+         * @return the position of the last live entry, or -1 if the list is empty
+         */
+        private int lastLive(int i) {
+            while (last[i] >= first[i] && !live(i, last[i])) {
+                last[i]--;
+            }
+            return last[i] >= first[i] ? last[i] : -1;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+import java.util.*;
+
+/**
+ * Inverted index over the attributes that contribute to connection strength.
+ * Students are bucketed by major, age, each previous internship company and
+ * roommate pairing. Two students can only have a non-zero connection strength
+ * if they share at least one bucket, so the index lets the graph builder skip
+ * every pair that has nothing in common. {@link Growing} keeps the same
+ * buckets for students that arrive one at a time.
+ *
+ * @author LonghornNetwork Team
+ */
+final class StudentAttributeIndex {
+    /** Bucket ids each student (by list position) belongs to */
+    private final int[][] bucketsOf;
+    /** Members of each bucket as ascending list positions */
+    private final int[][] members;
+
+    /**
+     * Builds the index for the given students. Positions in the list are used
+     * as student ids throughout the index.
+     *
+     * @param students the students to index
+     */
+    StudentAttributeIndex(List<UniversityStudent> students) {
+        Map<Integer, List<Integer>> majorBuckets = new HashMap<>();
+        Map<Integer, List<Integer>> ageBuckets = new HashMap<>();
+        Map<Integer, List<Integer>> companyBuckets = new HashMap<>();
+        Map<UniversityStudent, List<Integer>> roommateBuckets = new IdentityHashMap<>();
+
+        for (int i = 0; i < students.size(); i++) {
+            UniversityStudent student = students.get(i);
+            if (student.majorId() != FeatureInterner.NO_ID) {
+                majorBuckets.computeIfAbsent(student.majorId(), k -> new ArrayList<>()).add(i);
+            }
+            ageBuckets.computeIfAbsent(student.age, k -> new ArrayList<>()).add(i);
+            for (int internship : student.internshipIds()) {
+                List<Integer> bucket = companyBuckets.computeIfAbsent(internship, k -> new ArrayList<>());
+                // Duplicate internships on one student must not add the student twice
+                if (bucket.isEmpty() || bucket.get(bucket.size() - 1) != i) {
+                    bucket.add(i);
+                }
+            }
+            // A student shares the bucket of its roommate, and owns a bucket of its own
+            roommateBuckets.computeIfAbsent(student, k -> new ArrayList<>()).add(i);
+            if (student.getRoommate() != null && student.getRoommate() != student) {
+                roommateBuckets.computeIfAbsent(student.getRoommate(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<List<Integer>> allBuckets = new ArrayList<>();
+        allBuckets.addAll(majorBuckets.values());
+        allBuckets.addAll(ageBuckets.values());
+        allBuckets.addAll(companyBuckets.values());
+        allBuckets.addAll(roommateBuckets.values());
+
+        List<int[]> kept = new ArrayList<>();
+        int[] bucketCounts = new int[students.size()];
+        for (List<Integer> bucket : allBuckets) {
+            // Singleton buckets can never produce a pair
+            if (bucket.size() < 2) {
+                continue;
+            }
+            int[] sorted = bucket.stream().mapToInt(Integer::intValue).sorted().toArray();
+            kept.add(sorted);
+            for (int member : sorted) {
+                bucketCounts[member]++;
+            }
+        }
+
+        members = kept.toArray(new int[0][]);
+        bucketsOf = new int[students.size()][];
+        for (int i = 0; i < bucketsOf.length; i++) {
+            bucketsOf[i] = new int[bucketCounts[i]];
+            bucketCounts[i] = 0;
+        }
+        for (int b = 0; b < members.length; b++) {
+            for (int member : members[b]) {
+                bucketsOf[member][bucketCounts[member]++] = b;
+            }
+        }
+    }
+
+    /**
+     * Collects every position {@code j > i} that shares at least one bucket
+     * with position {@code i}, in ascending order.
+     *
+     * @param i     the row being built
+     * @param stamp scratch array of at least the student count; must not be shared
+     *              between threads and must only ever be used with this index
+     * @param out   receives the candidate positions; must hold the student count
+     * @return the number of candidates written to {@code out}
+     */
+    int collectCandidates(int i, int[] stamp, int[] out) {
+        int count = 0;
+        int mark = i + 1;
+        for (int b : bucketsOf[i]) {
+            int[] bucket = members[b];
+            int from = Arrays.binarySearch(bucket, i) + 1;
+            for (int k = from; k < bucket.length; k++) {
+                int j = bucket[k];
+                if (stamp[j] != mark) {
+                    stamp[j] = mark;
+                    out[count++] = j;
+                }
+            }
+        }
+        Arrays.sort(out, 0, count);
+        return count;
+    }
+
+    /**
+     * The buckets of the index, kept up to date as students are appended one
+     * at a time. Each student's position is the number of students appended
+     * before it, and appending returns the earlier positions that share a
+     * bucket with it, which are exactly the rows that list the new student
+     * as a candidate in a full index over the same students.
+     */
+    static final class Growing {
+        /** Members of each major bucket, by interned major */
+        private final Map<Integer, Bucket> majorBuckets = new HashMap<>();
+        /** Members of each age bucket, by age */
+        private final Map<Integer, Bucket> ageBuckets = new HashMap<>();
+        /** Members of each company bucket, by interned company */
+        private final Map<Integer, Bucket> companyBuckets = new HashMap<>();
+        /** Members of each roommate bucket, by the student owning it */
+        private final Map<UniversityStudent, Bucket> roommateBuckets = new IdentityHashMap<>();
+        /** Buckets joined by the student being appended */
+        private final List<Bucket> joined = new ArrayList<>();
+        /** Number of students appended */
+        private int size;
+        /** Position + 1 of the student that last collected each position */
+        private int[] stamp = new int[16];
+        /** Candidates of the most recently appended student */
+        private int[] candidates = new int[16];
+
+        /**
+         * Appends a student to its buckets and collects the earlier positions
+         * that share at least one bucket with it.
+         *
+         * @param student the student; it gets position {@link #size()}
+         * @return the number of candidates, available in ascending order from {@link #candidates()}
+         */
+        int add(UniversityStudent student) {
+            int position = size++;
+            joined.clear();
+            if (student.majorId() != FeatureInterner.NO_ID) {
+                joined.add(majorBuckets.computeIfAbsent(student.majorId(), k -> new Bucket()));
+            }
+            joined.add(ageBuckets.computeIfAbsent(student.age, k -> new Bucket()));
+            for (int internship : student.internshipIds()) {
+                joined.add(companyBuckets.computeIfAbsent(internship, k -> new Bucket()));
+            }
+            // A student shares the bucket of its roommate, and owns a bucket of its own
+            joined.add(roommateBuckets.computeIfAbsent(student, k -> new Bucket()));
+            if (student.getRoommate() != null && student.getRoommate() != student) {
+                joined.add(roommateBuckets.computeIfAbsent(student.getRoommate(), k -> new Bucket()));
+            }
+
+            if (stamp.length < size) {
+                stamp = Arrays.copyOf(stamp, Math.max(size, stamp.length * 2));
+            }
+            int count = 0;
+            int mark = position + 1;
+            for (Bucket bucket : joined) {
+                // Duplicate internships join one bucket twice; the student is a member once
+                if (bucket.size > 0 && bucket.members[bucket.size - 1] == position) {
+                    continue;
+                }
+                if (candidates.length < count + bucket.size) {
+                    candidates = Arrays.copyOf(candidates, Math.max(count + bucket.size, candidates.length * 2));
+                }
+                for (int k = 0; k < bucket.size; k++) {
+                    int j = bucket.members[k];
+                    if (stamp[j] != mark) {
+                        stamp[j] = mark;
+                        candidates[count++] = j;
+                    }
+                }
+                bucket.add(position);
+            }
+            Arrays.sort(candidates, 0, count);
+            return count;
+        }
+
+        /**
+         * Returns the candidates collected by the last {@link #add}; only the
+         * first count entries are valid, and the array is reused.
+         *
+         * @return the candidate positions
+         */
+        int[] candidates() {
+            return candidates;
+        }
+
+        /**
+         * Returns the number of students appended.
+         *
+         * @return the student count
+         */
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Growable bucket of ascending student positions.
+     */
+    private static final class Bucket {
+        /** Positions, valid up to size */
+        private int[] members = new int[4];
+        /** Number of members */
+        private int size;
+
+        /**
+         * Appends a position larger than every member.
+         *
+         * @param position the position
+         */
+        void add(int position) {
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size * 2);
+            }
+            members[size++] = position;
+        }
+    }
+}
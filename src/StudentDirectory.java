@@ -0,0 +1,72 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe registry that assigns dense int ids to students, in the order
+ * they are first seen. Students are compared by identity, like the graph's
+ * nodes, so two students with the same name get different ids. Stores keyed
+ * by student id, such as {@link MessageStore}, share a directory to agree on
+ * ids.
+ *
+ * @author LonghornNetwork Team
+ */
+public final class StudentDirectory {
+    /** Id returned by {@link #find(UniversityStudent)} for unregistered students */
+    public static final int NO_ID = -1;
+
+    /** Id of each registered student */
+    private final ConcurrentHashMap<UniversityStudent, Integer> ids = new ConcurrentHashMap<>();
+    /** Registered student of each id */
+    private final ConcurrentHashMap<Integer, UniversityStudent> students = new ConcurrentHashMap<>();
+    /** Next id to assign */
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Returns a student's id, registering the student on first use.
+     *
+     * @param student the student
+     * @return the student's id
+     * @throws NullPointerException if the student is null
+     */
+    public int idOf(UniversityStudent student) {
+        Integer id = ids.get(student);
+        if (id != null) {
+            return id;
+        }
+        return ids.computeIfAbsent(student, s -> {
+            int assigned = nextId.getAndIncrement();
+            students.put(assigned, s);
+            return assigned;
+        });
+    }
+
+    /**
+     * Returns a student's id without registering it.
+     *
+     * @param student the student
+     * @return the student's id, or {@link #NO_ID} if it was never registered
+     */
+    public int find(UniversityStudent student) {
+        Integer id = student == null ? null : ids.get(student);
+        return id == null ? NO_ID : id;
+    }
+
+    /**
+     * Returns the student registered under an id.
+     *
+     * @param id a student id
+     * @return the student, or null if no student has the id
+     */
+    public UniversityStudent student(int id) {
+        return students.get(id);
+    }
+
+    /**
+     * Returns the number of registered students.
+     *
+     * @return the number of ids assigned
+     */
+    public int size() {
+        return ids.size();
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents a weighted graph of students and their connections.
@@ -13,7 +14,7 @@ public class StudentGraph {
     /**
      * Represents a weighted edge in the student graph connecting two students.
      */
-    public class Edge {
+    public static class Edge {
         /** The neighboring student in this edge */
         public UniversityStudent neighbor;
         /** The weight of the connection between students */
@@ -37,32 +38,630 @@ public class StudentGraph {
         }
     }
 
-    /** Adjacency list representation of the student graph */
-    private Map<UniversityStudent, List<Edge>> adjacencyList = new HashMap<>();
+    /**
+     * Strategies for computing the edges of a newly constructed graph.
+     */
+    public enum BuildStrategy {
+        /** Evaluate the connection strength of every pair of students */
+        PAIRWISE,
+        /** Only evaluate pairs that share a major, age, internship or roommate */
+        INDEXED
+    }
+
+    /** Cohort size at which the default constructor switches to the indexed build */
+    public static final int INDEXED_BUILD_THRESHOLD = 256;
+
+    /** Adjacency list representation of the student graph, in insertion order */
+    private Map<UniversityStudent, List<Edge>> adjacencyList = new LinkedHashMap<>();
+    /** Insertion sequence number of each node; neighbor lists are kept sorted by it */
+    private final Map<UniversityStudent, Integer> ordinals = new HashMap<>();
+    /** Sequence number assigned to the next added node */
+    private int nextOrdinal;
+    /** Incremented on every modification */
+    private long version;
+    /** Components notified after each modification */
+    private final List<StudentGraphListener> listeners = new CopyOnWriteArrayList<>();
+    /** Compact copy returned by toCompact(), valid while compactVersion equals version */
+    private CompactStudentGraph compactCache;
+    /** Version at which compactCache was built */
+    private long compactVersion = -1;
+    /** Friendships that add to connection strength, or null */
+    private FriendshipStore friendships;
+    /** Strength added to every pair of friends */
+    private int friendshipWeight;
+    /** Friends of some nodes, read once from the store while rows are rebuilt, or null */
+    private Map<UniversityStudent, Set<UniversityStudent>> friendSnapshot;
 
     /**
-     * Constructs a StudentGraph from a list of students.
+     * Constructs a StudentGraph from a list of students. Cohorts of at least
+     * {@link #INDEXED_BUILD_THRESHOLD} students are built with the indexed
+     * strategy, smaller ones pairwise.
      * 
      * @param students The list of UniversityStudent objects to add to the graph
      */
     public StudentGraph(List<UniversityStudent> students) {
+        this(students, students.size() >= INDEXED_BUILD_THRESHOLD ? BuildStrategy.INDEXED : BuildStrategy.PAIRWISE);
+    }
+
+    /**
+     * Constructs a StudentGraph from a list of students using the given build
+     * strategy. Both strategies produce identical adjacency lists.
+     *
+     * @param students The list of UniversityStudent objects to add to the graph
+     * @param strategy How candidate pairs are enumerated
+     */
+    public StudentGraph(List<UniversityStudent> students, BuildStrategy strategy) {
         // Initialize adjacency list for all students
         for (UniversityStudent student : students) {
-            adjacencyList.put(student, new ArrayList<>());
+            addNode(student);
+        }
+
+        if (strategy == BuildStrategy.INDEXED) {
+            buildIndexed(students);
+        } else {
+            buildPairwise(students);
+        }
+    }
+
+    /**
+     * Constructs an empty graph; used by builders that compute edges elsewhere.
+     */
+    private StudentGraph() {
+    }
+
+    /**
+     * Creates a graph containing the given students and no edges.
+     *
+     * @param students the students to add as nodes
+     * @return a graph without edges
+     */
+    static StudentGraph withoutEdges(List<UniversityStudent> students) {
+        StudentGraph graph = new StudentGraph();
+        for (UniversityStudent student : students) {
+            graph.addNode(student);
+        }
+        return graph;
+    }
+
+    /**
+     * Recreates a graph from its compact form without computing any
+     * connection strength. Nodes and neighbor lists keep the compact graph's
+     * order, and the compact graph is reused as the cached {@link #toCompact()}.
+     *
+     * @param compact the compact graph, e.g. loaded from a snapshot
+     * @return a graph with the same nodes and edges
+     */
+    static StudentGraph fromCompact(CompactStudentGraph compact) {
+        StudentGraph graph = new StudentGraph();
+        for (int id = 0; id < compact.size(); id++) {
+            graph.addNode(compact.student(id));
+        }
+        for (int id = 0; id < compact.size(); id++) {
+            List<Edge> edges = graph.adjacencyList.get(compact.student(id));
+            for (int e = compact.edgeStart(id), end = compact.edgeEnd(id); e < end; e++) {
+                edges.add(new Edge(compact.student(compact.target(e)), compact.weight(e)));
+            }
+        }
+        graph.compactCache = compact;
+        graph.compactVersion = graph.version;
+        return graph;
+    }
+
+    /**
+     * Adds a student as a node without edges, assigning the next ordinal.
+     * Listeners are not notified; used while a graph is being built.
+     *
+     * @param student the student to add
+     * @return true if the student was added, false if it was already present
+     */
+    boolean addNode(UniversityStudent student) {
+        if (adjacencyList.putIfAbsent(student, new ArrayList<>()) == null) {
+            ordinals.put(student, nextOrdinal++);
+            return true;
         }
+        return false;
+    }
 
-        // Build edges between all pairs of students
+    /**
+     * Builds edges between all pairs of students.
+     *
+     * @param students the students in construction order
+     */
+    private void buildPairwise(List<UniversityStudent> students) {
         for (int i = 0; i < students.size(); i++) {
             for (int j = i + 1; j < students.size(); j++) {
-                UniversityStudent student1 = students.get(i);
-                UniversityStudent student2 = students.get(j);
-                int connectionWeight = student1.calculateConnectionStrength(student2);
-                
-                if (connectionWeight > 0) {
-                    adjacencyList.get(student1).add(new Edge(student2, connectionWeight));
-                    adjacencyList.get(student2).add(new Edge(student1, connectionWeight));
+                connect(students.get(i), students.get(j));
+            }
+        }
+    }
+
+    /**
+     * Builds edges only between students that share at least one attribute
+     * bucket. Candidates are visited in the same (i, j) order as the pairwise
+     * build so the adjacency lists come out identical.
+     *
+     * @param students the students in construction order
+     */
+    private void buildIndexed(List<UniversityStudent> students) {
+        StudentAttributeIndex index = new StudentAttributeIndex(students);
+        int[] stamp = new int[students.size()];
+        int[] candidates = new int[students.size()];
+        for (int i = 0; i < students.size(); i++) {
+            int count = index.collectCandidates(i, stamp, candidates);
+            for (int k = 0; k < count; k++) {
+                connect(students.get(i), students.get(candidates[k]));
+            }
+        }
+    }
+
+    /**
+     * Adds a reciprocal edge between two students if their connection strength
+     * is positive.
+     *
+     * @param student1 the student whose strength calculation is used
+     * @param student2 the other student
+     */
+    private void connect(UniversityStudent student1, UniversityStudent student2) {
+        int connectionWeight = pairWeight(student1, student2);
+        if (connectionWeight > 0) {
+            addEdge(student1, student2, connectionWeight);
+        }
+    }
+
+    /**
+     * Appends a reciprocal edge between two students that are already nodes.
+     *
+     * @param student1 one endpoint
+     * @param student2 the other endpoint
+     * @param weight   the connection strength
+     */
+    void addEdge(UniversityStudent student1, UniversityStudent student2, int weight) {
+        adjacencyList.get(student1).add(new Edge(student2, weight));
+        adjacencyList.get(student2).add(new Edge(student1, weight));
+    }
+
+    /**
+     * Adds a student to the graph and connects it to every existing student
+     * with a positive connection strength. The result is the same as rebuilding
+     * the graph with the student appended to the original list.
+     *
+     * @param student the student to add
+     * @return true if the student was added, false if it was already present
+     */
+    public boolean addStudent(UniversityStudent student) {
+        if (adjacencyList.containsKey(student)) {
+            return false;
+        }
+        addNode(student);
+        recomputeRow(student);
+        fireGraphChanged(Collections.singleton(student));
+        return true;
+    }
+
+    /**
+     * Removes a student and all of its edges from the graph.
+     *
+     * @param student the student to remove
+     * @return true if the student was removed, false if it was not present
+     */
+    public boolean removeStudent(UniversityStudent student) {
+        List<Edge> edges = adjacencyList.remove(student);
+        if (edges == null) {
+            return false;
+        }
+        Set<UniversityStudent> affected = new LinkedHashSet<>();
+        affected.add(student);
+        for (Edge edge : edges) {
+            removeEdgeTo(adjacencyList.get(edge.neighbor), student);
+            affected.add(edge.neighbor);
+        }
+        ordinals.remove(student);
+        fireGraphChanged(affected);
+        return true;
+    }
+
+    /**
+     * Recomputes the edges of a student whose roommate changed, and of its
+     * current roommate. A former roommate only needs its own call if its
+     * roommate field was changed as well.
+     *
+     * @param student the student whose roommate was set or cleared
+     * @throws IllegalArgumentException if the student is not in the graph
+     */
+    public void onRoommateChanged(UniversityStudent student) {
+        requireNode(student);
+        Set<UniversityStudent> affected = new LinkedHashSet<>();
+        affected.add(student);
+        recomputeRow(student);
+        UniversityStudent roommate = student.getRoommate();
+        if (roommate != null && adjacencyList.containsKey(roommate)) {
+            recomputeRow(roommate);
+            affected.add(roommate);
+        }
+        fireGraphChanged(affected);
+    }
+
+    /**
+     * Updates the graph after a batch of roommate changes, such as applying a
+     * matching. Each affected row is recomputed once; when more than half of
+     * the graph is affected, all edges are rebuilt instead, which costs about
+     * the same as recomputing a single row per node. Listeners are notified once.
+     *
+     * @param changed the students whose roommate was set or cleared; students
+     *                whose roommate did not change may be left out
+     * @throws IllegalArgumentException if a student is not in the graph
+     */
+    public void onRoommatesChanged(Collection<UniversityStudent> changed) {
+        Set<UniversityStudent> affected = new LinkedHashSet<>();
+        for (UniversityStudent student : changed) {
+            requireNode(student);
+            affected.add(student);
+            UniversityStudent roommate = student.getRoommate();
+            if (roommate != null && adjacencyList.containsKey(roommate)) {
+                affected.add(roommate);
+            }
+        }
+        if (affected.isEmpty()) {
+            return;
+        }
+        if (2 * affected.size() > adjacencyList.size()) {
+            rebuildEdges();
+        } else {
+            for (UniversityStudent student : affected) {
+                recomputeRow(student);
+            }
+        }
+        fireGraphChanged(affected);
+    }
+
+    /**
+     * Recomputes every edge from scratch, keeping the nodes and their order.
+     */
+    private void rebuildEdges() {
+        List<UniversityStudent> nodes = new ArrayList<>(adjacencyList.keySet());
+        for (UniversityStudent student : nodes) {
+            adjacencyList.put(student, new ArrayList<>());
+        }
+        friendSnapshot = snapshotFriends(nodes);
+        try {
+            if (nodes.size() >= INDEXED_BUILD_THRESHOLD) {
+                buildIndexed(nodes);
+            } else {
+                buildPairwise(nodes);
+            }
+            // The indexed build does not see friends who share no attribute
+            if (friendSnapshot != null) {
+                for (Map.Entry<UniversityStudent, Set<UniversityStudent>> entry : friendSnapshot.entrySet()) {
+                    for (UniversityStudent friend : entry.getValue()) {
+                        if (ordinals.get(entry.getKey()) < ordinals.get(friend)) {
+                            updatePair(entry.getKey(), friend);
+                        }
+                    }
                 }
             }
+        } finally {
+            friendSnapshot = null;
+        }
+    }
+
+    /**
+     * Records a new previous internship for a student and recomputes the
+     * student's edges.
+     *
+     * @param student the student who completed the internship
+     * @param company the internship company name
+     * @throws IllegalArgumentException if the student is not in the graph
+     */
+    public void onInternshipAdded(UniversityStudent student, String company) {
+        requireNode(student);
+        student.addInternship(company);
+        recomputeRow(student);
+        fireGraphChanged(Collections.singleton(student));
+    }
+
+    /**
+     * Makes recorded friendships an extra signal in connection strength: the
+     * edge between two friends is strengthened by the given weight, and
+     * friends with no other connection get an edge of that weight. Replaces
+     * any previous signal, and later row recomputations keep applying it.
+     * Friendships recorded after this call are applied with
+     * {@link #onFriendshipAdded}.
+     *
+     * @param friendships the friendship store, or null to remove the signal
+     * @param weight      the strength added per friendship, from 0 to
+     *                    {@link CompactStudentGraph#MAX_WEIGHT}; a friend's
+     *                    edge is capped at that maximum
+     * @throws IllegalArgumentException if weight is out of range
+     */
+    public void setFriendshipSignal(FriendshipStore friendships, int weight) {
+        if (weight < 0 || weight > CompactStudentGraph.MAX_WEIGHT) {
+            throw new IllegalArgumentException("Friendship weight must be between 0 and "
+                    + CompactStudentGraph.MAX_WEIGHT + ": " + weight);
+        }
+        Set<UniversityStudent> affected = new LinkedHashSet<>();
+        List<UniversityStudent[]> pairs = new ArrayList<>();
+        collectFriendPairs(this.friendships, affected, pairs);
+        collectFriendPairs(friendships, affected, pairs);
+        this.friendships = friendships;
+        this.friendshipWeight = friendships == null ? 0 : weight;
+        for (UniversityStudent[] pair : pairs) {
+            updatePair(pair[0], pair[1]);
+        }
+        fireGraphChanged(affected);
+    }
+
+    /**
+     * Applies the friendship signal to a pair whose friendship was just
+     * recorded in the store passed to {@link #setFriendshipSignal}.
+     *
+     * @param student1 one friend
+     * @param student2 the other friend
+     * @throws IllegalArgumentException if either student is not in the graph
+     */
+    public void onFriendshipAdded(UniversityStudent student1, UniversityStudent student2) {
+        requireNode(student1);
+        requireNode(student2);
+        if (student1 == student2) {
+            return;
+        }
+        updatePair(student1, student2);
+        Set<UniversityStudent> affected = new LinkedHashSet<>();
+        affected.add(student1);
+        affected.add(student2);
+        fireGraphChanged(affected);
+    }
+
+    /**
+     * Collects every pair of friends that are both nodes of this graph.
+     *
+     * @param store    the friendship store, may be null
+     * @param affected receives both students of each pair
+     * @param pairs    receives each pair once
+     */
+    private void collectFriendPairs(FriendshipStore store, Set<UniversityStudent> affected,
+                                    List<UniversityStudent[]> pairs) {
+        if (store == null) {
+            return;
+        }
+        StudentDirectory directory = store.getDirectory();
+        for (UniversityStudent student : adjacencyList.keySet()) {
+            int id = directory.find(student);
+            if (id == StudentDirectory.NO_ID) {
+                continue;
+            }
+            for (int friendId : store.friendsOf(id)) {
+                UniversityStudent friend = directory.student(friendId);
+                if (friendId > id && adjacencyList.containsKey(friend)) {
+                    pairs.add(new UniversityStudent[] {student, friend});
+                    affected.add(student);
+                    affected.add(friend);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the friends of some students from the friendship store, one
+     * store lookup per student, so that rebuilding their rows does not query
+     * the store for every pair.
+     *
+     * @param students the students whose friends are read
+     * @return each student's friends that are nodes of this graph, for the
+     *         students that have any, or null if there is no friendship signal
+     */
+    private Map<UniversityStudent, Set<UniversityStudent>> snapshotFriends(Collection<UniversityStudent> students) {
+        if (friendships == null) {
+            return null;
+        }
+        Map<UniversityStudent, Set<UniversityStudent>> snapshot = new IdentityHashMap<>();
+        StudentDirectory directory = friendships.getDirectory();
+        for (UniversityStudent student : students) {
+            int id = directory.find(student);
+            if (id == StudentDirectory.NO_ID) {
+                continue;
+            }
+            for (int friendId : friendships.friendsOf(id)) {
+                UniversityStudent friend = directory.student(friendId);
+                if (adjacencyList.containsKey(friend)) {
+                    snapshot.computeIfAbsent(student, k -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                            .add(friend);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns whether two students are friends under the friendship signal,
+     * answering from the snapshot when one of them is in it.
+     *
+     * @param student1 one student
+     * @param student2 the other student
+     * @return true if the signal applies to the pair
+     */
+    private boolean areFriends(UniversityStudent student1, UniversityStudent student2) {
+        if (friendships == null) {
+            return false;
+        }
+        if (friendSnapshot == null) {
+            return friendships.areFriends(student1, student2);
+        }
+        Set<UniversityStudent> friends = friendSnapshot.get(student1);
+        if (friends == null) {
+            friends = friendSnapshot.get(student2);
+            return friends != null && friends.contains(student1);
+        }
+        return friends.contains(student2);
+    }
+
+    /**
+     * Returns the strength of a pair, calculated from the earlier-inserted
+     * student as in the constructor, plus the friendship signal. The signal
+     * never raises the strength above {@link CompactStudentGraph#MAX_WEIGHT}.
+     *
+     * @param earlier the student inserted first
+     * @param later   the other student
+     * @return the edge weight, 0 for no edge
+     */
+    private int pairWeight(UniversityStudent earlier, UniversityStudent later) {
+        int weight = earlier.calculateConnectionStrength(later);
+        if (friendshipWeight > 0 && areFriends(earlier, later)) {
+            weight = Math.max(weight, Math.min(weight + friendshipWeight, CompactStudentGraph.MAX_WEIGHT));
+        }
+        return weight;
+    }
+
+    /**
+     * Recomputes the edge between two students in both neighbor lists.
+     *
+     * @param student1 one endpoint
+     * @param student2 the other endpoint
+     */
+    private void updatePair(UniversityStudent student1, UniversityStudent student2) {
+        int ordinal1 = ordinals.get(student1);
+        int ordinal2 = ordinals.get(student2);
+        int weight = ordinal1 < ordinal2 ? pairWeight(student1, student2) : pairWeight(student2, student1);
+        updateEdge(adjacencyList.get(student1), student2, ordinal2, weight);
+        updateEdge(adjacencyList.get(student2), student1, ordinal1, weight);
+    }
+
+    /**
+     * Sets, inserts or removes the edge to one neighbor in a neighbor list.
+     *
+     * @param row      the neighbor list
+     * @param neighbor the neighbor
+     * @param ordinal  the neighbor's ordinal
+     * @param weight   the new weight, 0 to remove the edge
+     */
+    private void updateEdge(List<Edge> row, UniversityStudent neighbor, int ordinal, int weight) {
+        int pos = findEdge(row, ordinal);
+        if (pos >= 0) {
+            if (weight > 0) {
+                row.get(pos).weight = weight;
+            } else {
+                row.remove(pos);
+            }
+        } else if (weight > 0) {
+            row.add(-pos - 1, new Edge(neighbor, weight));
+        }
+    }
+
+    /**
+     * Returns the modification counter of this graph. It changes whenever an
+     * incremental update is applied, so derived data can detect staleness.
+     *
+     * @return the current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Registers a listener notified after every incremental update.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(StudentGraphListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a previously added listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(StudentGraphListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Throws if the student is not a node of this graph.
+     *
+     * @param student the student to check
+     */
+    private void requireNode(UniversityStudent student) {
+        if (!adjacencyList.containsKey(student)) {
+            throw new IllegalArgumentException("Student is not in the graph: " + student.name);
+        }
+    }
+
+    /**
+     * Recomputes every edge incident to a student. The pair's strength is always
+     * calculated from the earlier-inserted student, as in the constructor, and
+     * both neighbor lists stay sorted by insertion order.
+     *
+     * @param student the student whose row is recomputed
+     */
+    private void recomputeRow(UniversityStudent student) {
+        int ordinal = ordinals.get(student);
+        List<Edge> row = new ArrayList<>();
+        friendSnapshot = snapshotFriends(Collections.singleton(student));
+        try {
+            for (UniversityStudent other : adjacencyList.keySet()) {
+                if (other == student) {
+                    continue;
+                }
+                int weight = ordinals.get(other) < ordinal
+                        ? pairWeight(other, student)
+                        : pairWeight(student, other);
+                updateEdge(adjacencyList.get(other), student, ordinal, weight);
+                if (weight > 0) {
+                    row.add(new Edge(other, weight));
+                }
+            }
+        } finally {
+            friendSnapshot = null;
+        }
+        adjacencyList.put(student, row);
+    }
+
+    /**
+     * Removes the edge pointing at a student from a neighbor list.
+     *
+     * @param row    the neighbor list
+     * @param target the student whose edge is removed
+     */
+    private void removeEdgeTo(List<Edge> row, UniversityStudent target) {
+        int pos = findEdge(row, ordinals.get(target));
+        if (pos >= 0) {
+            row.remove(pos);
+        }
+    }
+
+    /**
+     * Binary searches a neighbor list, which is sorted by neighbor ordinal.
+     *
+     * @param row     the neighbor list
+     * @param ordinal the ordinal of the neighbor to find
+     * @return the edge position, or {@code -(insertionPoint) - 1} if absent
+     */
+    private int findEdge(List<Edge> row, int ordinal) {
+        int lo = 0;
+        int hi = row.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midOrdinal = ordinals.get(row.get(mid).neighbor);
+            if (midOrdinal < ordinal) {
+                lo = mid + 1;
+            } else if (midOrdinal > ordinal) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Bumps the version and notifies listeners of a modification.
+     *
+     * @param affected the students whose rows changed
+     */
+    private void fireGraphChanged(Set<UniversityStudent> affected) {
+        version++;
+        Set<UniversityStudent> view = Collections.unmodifiableSet(affected);
+        for (StudentGraphListener listener : listeners) {
+            listener.graphChanged(this, view);
         }
     }
 
@@ -85,6 +684,21 @@ public class StudentGraph {
         return adjacencyList.get(student);
     }
 
+    /**
+     * Returns an immutable compressed-sparse-row copy of this graph for
+     * allocation-free traversal. The copy is cached until the next
+     * modification, so repeated calls are cheap.
+     *
+     * @return a CompactStudentGraph with the same nodes and edges
+     */
+    public CompactStudentGraph toCompact() {
+        if (compactCache == null || compactVersion != version) {
+            compactCache = new CompactStudentGraph(this);
+            compactVersion = version;
+        }
+        return compactCache;
+    }
+
     /**
      * Prints the graph.
      */
@@ -0,0 +1,19 @@
+import java.util.Set;
+
+/**
+ * Callback interface for components that derive state from a {@link StudentGraph}
+ * (caches, indexes, compact copies) and need to stay in sync with incremental
+ * updates instead of rebuilding from scratch.
+ *
+ * @author LonghornNetwork Team
+ */
+public interface StudentGraphListener {
+    /**
+     * Called after the graph has been modified. Only the rows of the affected
+     * students, and the reciprocal edges pointing at them, may have changed.
+     *
+     * @param graph    the graph that changed
+     * @param affected the students that were added, removed or had their edges recomputed
+     */
+    void graphChanged(StudentGraph graph, Set<UniversityStudent> affected);
+}
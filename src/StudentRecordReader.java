@@ -0,0 +1,556 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Pulls student records one at a time from a UTF-8 file. The file is read
+ * through a {@link FileChannel} into one large reusable byte buffer, lines are
+ * found by scanning for terminators, and keys, separators and list commas are
+ * matched on the raw bytes, so a record allocates little more than the
+ * strings it keeps. Records and error messages follow
+ * {@link DataParser#parseStudents(String)}: lines outside a record are
+ * skipped, and by default the first malformed record is reported on standard
+ * error and ends the stream. In collecting mode, malformed records are
+ * instead recorded as {@link ParseError}s and reading goes on with the next
+ * record. A "Student:" line met where a field is expected is reported as the
+ * missing field and then opens the next record, so records never span a
+ * "Student:" line and a file can be read in independent regions cut at such
+ * lines.
+ *
+ * @author LonghornNetwork Team
+ */
+final class StudentRecordReader implements Closeable {
+    /** Initial read buffer size; grows only to hold a longer line */
+    private static final int BUFFER_SIZE = 1 << 20;
+    /** Line that opens a record */
+    private static final byte[] RECORD_START = ascii("Student:");
+    /** Value of a list field that means an empty list */
+    private static final byte[] NONE = ascii("None");
+    /** Expected field names of a record, in order */
+    private static final String[] RECORD_KEYS = {
+        "Name",
+        "Age",
+        "Gender",
+        "Year",
+        "Major",
+        "GPA",
+        "RoommatePreferences",
+        "PreviousInternships"
+    };
+    /** Field names as bytes */
+    private static final byte[][] RECORD_KEY_BYTES = new byte[RECORD_KEYS.length][];
+
+    static {
+        for (int i = 0; i < RECORD_KEYS.length; i++) {
+            RECORD_KEY_BYTES[i] = ascii(RECORD_KEYS[i]);
+        }
+    }
+
+    /** The file being read */
+    private final FileChannel channel;
+    /** Whether closing this reader closes the channel */
+    private final boolean ownsChannel;
+    /** End of the region being read, exclusive */
+    private final long regionEnd;
+    /** Whether the region ends where another region begins, at a "Student:" line */
+    private final boolean regionEndsAtRecord;
+    /** Malformed records, or null to report the first one and stop */
+    private final List<ParseError> errors;
+    /** File offset of the next channel read */
+    private long readPosition;
+    /** File offset of {@code buffer[0]} */
+    private long bufferOffset;
+    /** File offset of the current line before trimming */
+    private long rawLineStart;
+    /** Number of lines read so far, which is the current line's number */
+    private int lineNumber;
+    /** Whether the current line opens a record that has not been read yet */
+    private boolean pendingRecordStart;
+    /** Bytes read but not yet consumed live in [pos, limit) */
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    /** View of {@link #buffer} used for channel reads */
+    private ByteBuffer window = ByteBuffer.wrap(buffer);
+    /** Start of the unconsumed bytes */
+    private int pos;
+    /** End of the valid bytes */
+    private int limit;
+    /** Position from which to continue looking for a terminator */
+    private int scanFrom;
+    /** Whether the channel is exhausted */
+    private boolean endOfFile;
+    /** Start of the current line, trimmed */
+    private int lineStart;
+    /** End of the current line, exclusive and trimmed */
+    private int lineEnd;
+    /** Whether a malformed record ended the stream */
+    private boolean failed;
+
+    /**
+     * Opens a file for reading.
+     *
+     * @param filename the path to the input file
+     * @throws IOException if the file cannot be opened
+     */
+    StudentRecordReader(String filename) throws IOException {
+        channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        ownsChannel = true;
+        regionEnd = channel.size();
+        regionEndsAtRecord = false;
+        errors = null;
+    }
+
+    /**
+     * Reads a region of an open file in collecting mode. Regions must start
+     * at the beginning of the file or of a "Student:" line, as returned by
+     * {@link #nextRecordStart}. Line numbers are counted from the region start.
+     *
+     * @param channel the open file, read with positional reads only; not closed by this reader
+     * @param start   the first byte of the region
+     * @param end     the end of the region, exclusive
+     * @throws IOException if the file size cannot be read
+     */
+    StudentRecordReader(FileChannel channel, long start, long end) throws IOException {
+        this.channel = channel;
+        ownsChannel = false;
+        regionEnd = end;
+        regionEndsAtRecord = end < channel.size();
+        errors = new ArrayList<>();
+        readPosition = start;
+        bufferOffset = start;
+    }
+
+    /**
+     * Finds the first "Student:" line that starts at or after a file offset.
+     *
+     * @param channel the open file
+     * @param from    the earliest offset allowed
+     * @param end     the offset to return when there is no such line
+     * @return the offset of the start of that line, 0 if {@code from} is 0, or {@code end}
+     * @throws IOException if the file cannot be read
+     */
+    static long nextRecordStart(FileChannel channel, long from, long end) throws IOException {
+        if (from <= 0) {
+            return 0;
+        }
+        // Starting one byte early makes the first line end exactly where the first whole line begins
+        StudentRecordReader scanner = new StudentRecordReader(channel, from - 1, end);
+        scanner.nextLine();
+        while (scanner.nextLine()) {
+            if (scanner.lineEquals(RECORD_START)) {
+                return scanner.rawLineStart;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the next student, or null at end of file or after a malformed record
+     * @throws IOException if the file cannot be read
+     */
+    UniversityStudent next() throws IOException {
+        if (failed) {
+            return null;
+        }
+        while (true) {
+            if (pendingRecordStart) {
+                pendingRecordStart = false;
+            } else if (!nextLine()) {
+                return null;
+            } else if (!lineEquals(RECORD_START)) {
+                continue;
+            }
+            UniversityStudent student = readRecord();
+            if (student != null || failed) {
+                return student;
+            }
+        }
+    }
+
+    /**
+     * Returns whether reading stopped at a malformed record.
+     *
+     * @return true if an error was reported
+     */
+    boolean failed() {
+        return failed;
+    }
+
+    /**
+     * Returns the malformed records met so far in collecting mode.
+     *
+     * @return the errors in file order, line numbers relative to the region start
+     */
+    List<ParseError> errors() {
+        return errors;
+    }
+
+    /**
+     * Returns the number of lines read so far.
+     *
+     * @return the line count
+     */
+    int lineCount() {
+        return lineNumber;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the field lines of a record whose opening line was just consumed.
+     *
+     * @return the student, or null if the record is malformed
+     * @throws IOException if the file cannot be read
+     */
+    private UniversityStudent readRecord() throws IOException {
+        String studentName = null;
+        int studentAge = Integer.MIN_VALUE;
+        String studentGender = null;
+        int studentYear = Integer.MIN_VALUE;
+        String studentMajor = null;
+        double studentGpa = Double.MIN_VALUE;
+        ArrayList<String> prefs = null;
+        ArrayList<String> internships = null;
+
+        for (int i = 0; i < RECORD_KEYS.length; i++) {
+            if (!nextLine()) {
+                if (regionEndsAtRecord) {
+                    // The next region opens with a "Student:" line, which ends this record
+                    return fail(lineNumber + 1, "Parsing error: Missing required field '" + RECORD_KEYS[i]
+                            + "' in student entry for " + studentName + ".");
+                }
+                return fail(lineNumber + 1, "Parsing error: Unexpected end of file in student entry for "
+                        + studentName + ".");
+            }
+            if (lineEquals(RECORD_START)) {
+                pendingRecordStart = true;
+                return fail(lineNumber, "Parsing error: Missing required field '" + RECORD_KEYS[i]
+                        + "' in student entry for " + studentName + ".");
+            }
+            int colon = indexOf((byte) ':', lineStart, lineEnd);
+            if (colon < 0) {
+                return fail(lineNumber, "Parsing error: Incorrect format in line: '" + decode(lineStart, lineEnd)
+                        + "'. Expected format 'Name: <value>'.");
+            }
+            int keyEnd = trimEnd(lineStart, colon);
+            if (!regionEquals(lineStart, keyEnd, RECORD_KEY_BYTES[i])) {
+                return fail(lineNumber, "Parsing error: Missing required field '" + RECORD_KEYS[i]
+                        + "' in student entry for " + studentName + ".");
+            }
+            int valueStart = trimStart(colon + 1, lineEnd);
+
+            switch (i) {
+                case 0:
+                    studentName = decode(valueStart, lineEnd);
+                    break;
+                case 1:
+                    try {
+                        studentAge = parseInt(valueStart, lineEnd);
+                    } catch (NumberFormatException e) {
+                        return fail(lineNumber, "Number format error: Invalid number format for age: '"
+                                + decode(valueStart, lineEnd) + "' in student entry for " + studentName + ".");
+                    }
+                    break;
+                case 2:
+                    studentGender = decode(valueStart, lineEnd);
+                    break;
+                case 3:
+                    try {
+                        studentYear = parseInt(valueStart, lineEnd);
+                    } catch (NumberFormatException e) {
+                        return fail(lineNumber, "Number format error: Invalid number format for year: '"
+                                + decode(valueStart, lineEnd) + "' in student entry for " + studentName + ".");
+                    }
+                    break;
+                case 4:
+                    studentMajor = decode(valueStart, lineEnd);
+                    break;
+                case 5:
+                    try {
+                        studentGpa = Double.parseDouble(decode(valueStart, lineEnd));
+                    } catch (NumberFormatException e) {
+                        return fail(lineNumber, "Number format error: Invalid number format for GPA: '"
+                                + decode(valueStart, lineEnd) + "' in student entry for " + studentName + ".");
+                    }
+                    break;
+                case 6:
+                    prefs = parseList(valueStart, lineEnd);
+                    break;
+                default:
+                    internships = parseList(valueStart, lineEnd);
+                    break;
+            }
+        }
+        return new UniversityStudent(studentName, studentAge, studentGender,
+                studentYear, studentMajor, studentGpa, prefs, internships);
+    }
+
+    /**
+     * Records a malformed record in collecting mode, or reports it and ends
+     * the stream otherwise.
+     *
+     * @param line    the number of the offending line
+     * @param message the error message
+     * @return null, for use as the record result
+     */
+    private UniversityStudent fail(int line, String message) {
+        if (errors != null) {
+            errors.add(new ParseError(line, message));
+        } else {
+            System.err.println(message);
+            failed = true;
+        }
+        return null;
+    }
+
+    /**
+     * Parses a comma-separated value into trimmed strings with the same
+     * results as {@code String.split(",")}: "None" is an empty list and
+     * trailing empty tokens are dropped.
+     *
+     * @param start the first byte of the trimmed value
+     * @param end   the end of the trimmed value, exclusive
+     * @return the tokens
+     */
+    private ArrayList<String> parseList(int start, int end) {
+        ArrayList<String> result = new ArrayList<>();
+        if (regionEquals(start, end, NONE)) {
+            return result;
+        }
+        int tokenStart = start;
+        // Tokens before a run of trailing empty tokens, as split drops them
+        int keep = 0;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer[i] == ',') {
+                int from = trimStart(tokenStart, i);
+                int to = trimEnd(from, i);
+                result.add(decode(from, to));
+                if (i > tokenStart) {
+                    keep = result.size();
+                }
+                tokenStart = i + 1;
+            }
+        }
+        if (keep == 0 && result.size() == 1) {
+            // An empty value has no separator and is kept as a single empty token
+            return result;
+        }
+        return keep == result.size() ? result : new ArrayList<>(result.subList(0, keep));
+    }
+
+    /**
+     * Parses an int with the same results as {@link Integer#parseInt(String)},
+     * without building a string for plain ASCII numbers.
+     *
+     * @param start the first byte
+     * @param end   the end, exclusive
+     * @return the value
+     * @throws NumberFormatException if the bytes are not an int
+     */
+    private int parseInt(int start, int end) {
+        int i = start;
+        boolean negative = i < end && buffer[i] == '-';
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            i++;
+        }
+        // Nine digits cannot overflow; longer or non-ASCII numbers take the general path
+        if (i == end || end - i > 9) {
+            return Integer.parseInt(decode(start, end));
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(decode(start, end));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Advances to the next line, accepting "\n", "\r" and "\r\n" as
+     * terminators like {@link BufferedReader#readLine()}, and trims it.
+     *
+     * @return false at end of file
+     * @throws IOException if the file cannot be read
+     */
+    private boolean nextLine() throws IOException {
+        while (true) {
+            for (int i = scanFrom; i < limit; i++) {
+                byte b = buffer[i];
+                if (b == '\n' || b == '\r') {
+                    if (b == '\r' && i + 1 == limit && !endOfFile) {
+                        // Need the next byte to tell "\r" from "\r\n"
+                        break;
+                    }
+                    setLine(pos, i);
+                    rawLineStart = bufferOffset + pos;
+                    lineNumber++;
+                    pos = i + 1;
+                    if (b == '\r' && pos < limit && buffer[pos] == '\n') {
+                        pos++;
+                    }
+                    scanFrom = pos;
+                    return true;
+                }
+                scanFrom = i + 1;
+            }
+            if (endOfFile) {
+                if (pos < limit) {
+                    setLine(pos, limit);
+                    rawLineStart = bufferOffset + pos;
+                    lineNumber++;
+                    pos = limit;
+                    scanFrom = limit;
+                    return true;
+                }
+                return false;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Moves the unconsumed bytes to the front of the buffer, growing it if a
+     * single line fills it, and reads more from the channel.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    private void fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            scanFrom -= pos;
+            bufferOffset += pos;
+            pos = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            window = ByteBuffer.wrap(buffer);
+        }
+        long remaining = regionEnd - readPosition;
+        window.limit((int) Math.min(buffer.length, limit + remaining)).position(limit);
+        int read = remaining > 0 ? channel.read(window, readPosition) : -1;
+        if (read < 0) {
+            endOfFile = true;
+        } else {
+            limit += read;
+            readPosition += read;
+        }
+    }
+
+    /**
+     * Sets the current line to a byte range with surrounding whitespace
+     * removed, as {@link String#trim()} would.
+     *
+     * @param start the first byte of the line
+     * @param end   the end of the line, exclusive
+     */
+    private void setLine(int start, int end) {
+        lineStart = trimStart(start, end);
+        lineEnd = trimEnd(lineStart, end);
+    }
+
+    /**
+     * Skips leading bytes that {@link String#trim()} removes.
+     *
+     * @param start the first byte
+     * @param end   the end, exclusive
+     * @return the first byte kept
+     */
+    private int trimStart(int start, int end) {
+        while (start < end && (buffer[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Skips trailing bytes that {@link String#trim()} removes.
+     *
+     * @param start the first byte
+     * @param end   the end, exclusive
+     * @return the end of the kept bytes, exclusive
+     */
+    private int trimEnd(int start, int end) {
+        while (end > start && (buffer[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns whether the current line consists of exactly the given bytes.
+     *
+     * @param expected the expected bytes
+     * @return true if they match
+     */
+    private boolean lineEquals(byte[] expected) {
+        return regionEquals(lineStart, lineEnd, expected);
+    }
+
+    /**
+     * Returns whether a byte range equals the given bytes.
+     *
+     * @param start    the first byte
+     * @param end      the end, exclusive
+     * @param expected the expected bytes
+     * @return true if they match
+     */
+    private boolean regionEquals(int start, int end, byte[] expected) {
+        return Arrays.equals(buffer, start, end, expected, 0, expected.length);
+    }
+
+    /**
+     * Finds a byte within a range.
+     *
+     * @param b     the byte to find
+     * @param start the first byte searched
+     * @param end   the end, exclusive
+     * @return the position of the first match, or -1
+     */
+    private int indexOf(byte b, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes a byte range as UTF-8.
+     *
+     * @param start the first byte
+     * @param end   the end, exclusive
+     * @return the decoded string
+     */
+    private String decode(int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes an ASCII constant.
+     *
+     * @param s the constant
+     * @return its bytes
+     */
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
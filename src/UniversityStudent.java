@@ -10,6 +10,8 @@ import java.util.*;
 public class UniversityStudent extends Student {
     /** Current assigned roommate */
     private UniversityStudent currentRoommate;
+    /** Interned ids of the major and internships, and the field values they were computed from */
+    private Features features;
 
     /**
      * Constructs a new UniversityStudent with the specified attributes.
@@ -35,7 +37,76 @@ public class UniversityStudent extends Student {
         this.major = major;
         this.gpa = gpa;
         this.roommatePreferences = roommatePreferences == null ? new ArrayList<>() : new ArrayList<>(roommatePreferences);
-        this.previousInternships = previousInternships == null ? new ArrayList<>() : new ArrayList<>(previousInternships);
+        this.previousInternships = previousInternships == null
+                ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(previousInternships));
+        refreshFeatures();
+    }
+
+    /**
+     * Records a new previous internship and refreshes the interned ids.
+     * The internship list is unmodifiable, so this is the way to add one.
+     *
+     * @param company the internship company name
+     */
+    public void addInternship(String company) {
+        List<String> internships = new ArrayList<>(previousInternships);
+        internships.add(company);
+        previousInternships = Collections.unmodifiableList(internships);
+        refreshFeatures();
+    }
+
+    /**
+     * Recomputes the interned major and internship ids used by
+     * {@link #calculateConnectionStrength(Student)}. This happens
+     * automatically when {@code major} or {@code previousInternships} is
+     * replaced or the list changes size, so an explicit call is only needed
+     * after replacing an element of a modifiable list assigned to
+     * {@code previousInternships}.
+     */
+    public void refreshFeatures() {
+        List<String> internships = previousInternships;
+        int[] ids = new int[internships.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = FeatureInterner.idOf(internships.get(i));
+        }
+        Arrays.sort(ids);
+        features = new Features(major, internships, ids.length, FeatureInterner.idOf(major), ids);
+    }
+
+    /**
+     * Returns the interned features, recomputing them first if {@code major}
+     * or {@code previousInternships} was replaced or the list changed size
+     * since they were computed.
+     *
+     * @return the current features
+     */
+    private Features features() {
+        Features current = features;
+        List<String> internships = previousInternships;
+        if (current.major != major || current.internships != internships
+                || current.internshipCount != internships.size()) {
+            refreshFeatures();
+            current = features;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the interned id of this student's major.
+     *
+     * @return the major id, or FeatureInterner.NO_ID if the major is null
+     */
+    int majorId() {
+        return features().majorId;
+    }
+
+    /**
+     * Returns the interned ids of this student's previous internships.
+     *
+     * @return ids sorted ascending; the array must not be modified
+     */
+    int[] internshipIds() {
+        return features().internshipIds;
     }
     
     /**
@@ -54,20 +125,19 @@ public class UniversityStudent extends Student {
         int strength = 0;
 
         if (other instanceof UniversityStudent otherStudent) {
+            Features mine = features();
+            Features theirs = otherStudent.features();
+
             // Check if they are roommates
             if (this.currentRoommate != null && this.currentRoommate.equals(otherStudent)) {
                 strength += 4;
             }
 
             // Count shared internships
-            for (String internship : this.previousInternships) {
-                if (otherStudent.previousInternships.contains(internship)) {
-                    strength += 3;
-                }
-            }
+            strength += 3 * countShared(mine.internshipIds, theirs.internshipIds);
 
             // Check if same major
-            if (this.major != null && this.major.equals(otherStudent.major)) {
+            if (mine.majorId != FeatureInterner.NO_ID && mine.majorId == theirs.majorId) {
                 strength += 2;
             }
 
@@ -80,6 +150,32 @@ public class UniversityStudent extends Student {
         return strength;
     }
     
+    /**
+     * Counts the entries of {@code mine} that also occur in {@code theirs} with a
+     * sorted merge. Duplicates in {@code mine} are each counted, matching a
+     * {@code contains} check per internship.
+     *
+     * @param mine   sorted internship ids of this student
+     * @param theirs sorted internship ids of the other student
+     * @return the number of shared internships
+     */
+    private static int countShared(int[] mine, int[] theirs) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < mine.length && j < theirs.length) {
+            if (mine[i] < theirs[j]) {
+                i++;
+            } else if (mine[i] > theirs[j]) {
+                j++;
+            } else {
+                shared++;
+                i++;
+            }
+        }
+        return shared;
+    }
+
     /**
      * Gets the current roommate of this student.
      * 
@@ -108,5 +204,19 @@ public class UniversityStudent extends Student {
         return String.format("UniversityStudent{name='%s', age=%d, gender='%s', year=%d, major='%s', GPA=%.1f, roommatePreferences=%s, previousInternships=%s}",
                 name, age, gender, year, major, gpa, roommatePreferences, previousInternships);
     }
-}
 
+    /**
+     * Interned ids of a student's major and internships, together with the
+     * field values they were computed from. Immutable, so threads scoring
+     * connections in parallel always see a consistent set.
+     *
+     * @param major           the major the ids were computed from
+     * @param internships     the internship list the ids were computed from
+     * @param internshipCount the size of that list at the time
+     * @param majorId         the interned major id, or FeatureInterner.NO_ID if none
+     * @param internshipIds   the interned internship ids, sorted ascending (duplicates kept)
+     */
+    private record Features(String major, List<String> internships, int internshipCount, int majorId,
+                            int[] internshipIds) {
+    }
+}
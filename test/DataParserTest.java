@@ -0,0 +1,279 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that {@link DataParser#parseStudentsParallel(String, int)} gives the
+ * same students as the sequential parser and the same errors, with the same
+ * line numbers and messages, at every parallelism. The files are several
+ * megabytes so that they are cut into many chunks.
+ *
+ * @author LonghornNetwork Team
+ */
+class DataParserTest {
+    /** Students written to each clean file */
+    private static final int STUDENTS = 25_000;
+    /** Students written to the file with errors, enough for ten chunks */
+    private static final int ERROR_STUDENTS = 65_000;
+    /** Highest parallelism checked */
+    private static final int MAX_PARALLELISM = 5;
+    /** Field names of a record, in order */
+    private static final String[] KEYS = {
+        "Name", "Age", "Gender", "Year", "Major", "GPA", "RoommatePreferences", "PreviousInternships"
+    };
+    /** Lines that may pad the space between records */
+    private static final String[] PADDING = {"", "   ", "\t", "# not a record"};
+    /** Line terminators accepted by the parser */
+    private static final String[] TERMINATORS = {"\n", "\r\n", "\r"};
+
+    /** Directory for the generated files */
+    @TempDir
+    Path directory;
+
+    /**
+     * Describes a student by every parsed field, including the exact GPA.
+     *
+     * @param student the student
+     * @return the description
+     */
+    private static String describe(UniversityStudent student) {
+        return student + " gpa=" + student.gpa;
+    }
+
+    /**
+     * Describes students in order.
+     *
+     * @param students the students
+     * @return the descriptions
+     */
+    private static List<String> describe(List<UniversityStudent> students) {
+        List<String> result = new ArrayList<>();
+        for (UniversityStudent student : students) {
+            result.add(describe(student));
+        }
+        return result;
+    }
+
+    /**
+     * Describes errors in order.
+     *
+     * @param errors the errors
+     * @return "line: message" for each error
+     */
+    private static List<String> describeErrors(List<ParseError> errors) {
+        List<String> result = new ArrayList<>();
+        for (ParseError error : errors) {
+            result.add(error.getLineNumber() + ": " + error.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the field values of a student in record order.
+     *
+     * @param student the student
+     * @return the values as written to a file
+     */
+    private static String[] values(UniversityStudent student) {
+        return new String[] {
+            student.name,
+            String.valueOf(student.age),
+            student.gender,
+            String.valueOf(student.year),
+            student.major,
+            String.valueOf(student.gpa),
+            joined(student.roommatePreferences),
+            joined(student.previousInternships)
+        };
+    }
+
+    /**
+     * Joins a list the way the parser splits it.
+     *
+     * @param values the values
+     * @return the comma separated values, or "None"
+     */
+    private static String joined(List<String> values) {
+        return values.isEmpty() ? "None" : String.join(", ", values);
+    }
+
+    /**
+     * Asserts that the parallel parser returns the expected students and
+     * errors at every parallelism.
+     *
+     * @param file     the file
+     * @param students the expected student descriptions
+     * @param errors   the expected error descriptions
+     * @throws IOException if the file cannot be read
+     */
+    private static void assertParallelResult(Path file, List<String> students, List<String> errors)
+            throws IOException {
+        for (int parallelism = 1; parallelism <= MAX_PARALLELISM; parallelism++) {
+            ParseResult result = DataParser.parseStudentsParallel(file.toString(), parallelism);
+            assertEquals(students, describe(result.getStudents()), "parallelism " + parallelism);
+            assertEquals(errors, describeErrors(result.getErrors()), "parallelism " + parallelism);
+            assertEquals(!errors.isEmpty(), result.hasErrors());
+        }
+    }
+
+    /**
+     * A generated file parses to the same students as the sequential parser.
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void cleanFileMatchesSequentialParse() throws IOException {
+        Path file = directory.resolve("clean.txt");
+        new CohortGenerator(19).write(STUDENTS, file);
+        List<String> expected = describe(DataParser.parseStudents(file.toString()));
+        assertEquals(STUDENTS, expected.size());
+        assertParallelResult(file, expected, List.of());
+    }
+
+    /**
+     * CRLF and CR line endings and blank or stray lines between records do
+     * not change the students.
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void paddedFileWithMixedLineEndingsMatchesSequentialParse() throws IOException {
+        List<UniversityStudent> students = new CohortGenerator(1919).generate(STUDENTS);
+        Random random = new Random(19);
+        StringBuilder text = new StringBuilder();
+        for (UniversityStudent student : students) {
+            String terminator = TERMINATORS[random.nextInt(TERMINATORS.length)];
+            text.append("Student:").append(terminator);
+            String[] values = values(student);
+            for (int k = 0; k < KEYS.length; k++) {
+                text.append(KEYS[k]).append(": ").append(values[k]).append(terminator);
+            }
+            for (int pad = random.nextInt(3); pad > 0; pad--) {
+                text.append(PADDING[random.nextInt(PADDING.length)]).append(terminator);
+            }
+        }
+        Path file = directory.resolve("padded.txt");
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<String> expected = describe(students);
+        assertEquals(expected, describe(DataParser.parseStudents(file.toString())));
+        assertParallelResult(file, expected, List.of());
+    }
+
+    /**
+     * Many malformed records, written with CRLF line endings and blank
+     * padding, are all reported with the line number and message of the
+     * sequential parser, and every other record is still parsed.
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void injectedErrorsAreReportedAtEveryParallelism() throws IOException {
+        List<UniversityStudent> students = new CohortGenerator(191919).generate(ERROR_STUDENTS);
+        Random random = new Random(1919);
+        StringBuilder text = new StringBuilder();
+        List<String> expectedStudents = new ArrayList<>();
+        List<String> expectedErrors = new ArrayList<>();
+        int line = 0;
+        for (int s = 0; s < students.size(); s++) {
+            UniversityStudent student = students.get(s);
+            String[] values = values(student);
+            String[] lines = new String[KEYS.length];
+            for (int k = 0; k < KEYS.length; k++) {
+                lines[k] = KEYS[k] + ": " + values[k];
+            }
+            boolean last = s == students.size() - 1;
+            // Fields written; a shorter record is cut off by the next "Student:" line or the end of the file
+            int written = KEYS.length;
+            // Index of a field line removed from the record, or -1
+            int dropped = -1;
+            int errorField = -1;
+            String error = null;
+            switch (last ? 5 : random.nextInt(16)) {
+                case 0:
+                    errorField = 1;
+                    lines[1] = "Age: twenty";
+                    error = "Number format error: Invalid number format for age: 'twenty' in student entry for "
+                            + student.name + ".";
+                    break;
+                case 1:
+                    errorField = 3;
+                    lines[3] = "Year: 2.5";
+                    error = "Number format error: Invalid number format for year: '2.5' in student entry for "
+                            + student.name + ".";
+                    break;
+                case 2:
+                    errorField = 5;
+                    lines[5] = "GPA: high";
+                    error = "Number format error: Invalid number format for GPA: 'high' in student entry for "
+                            + student.name + ".";
+                    break;
+                case 3:
+                    // Reported on the line that takes the place of the missing field
+                    dropped = random.nextInt(KEYS.length - 1);
+                    errorField = dropped + 1;
+                    error = "Parsing error: Missing required field '" + KEYS[dropped] + "' in student entry for "
+                            + (dropped == 0 ? null : student.name) + ".";
+                    break;
+                case 4:
+                    errorField = random.nextInt(KEYS.length);
+                    lines[errorField] = KEYS[errorField] + " " + values[errorField];
+                    error = "Parsing error: Incorrect format in line: '" + lines[errorField]
+                            + "'. Expected format 'Name: <value>'.";
+                    break;
+                case 5:
+                case 6:
+                case 7:
+                case 8:
+                case 9:
+                case 10:
+                case 11:
+                    // Truncated records are common so that many end exactly where a chunk does
+                    written = 1 + random.nextInt(KEYS.length - 1);
+                    errorField = written;
+                    error = last
+                            ? "Parsing error: Unexpected end of file in student entry for " + student.name + "."
+                            : "Parsing error: Missing required field '" + KEYS[written] + "' in student entry for "
+                                    + student.name + ".";
+                    break;
+                default:
+                    break;
+            }
+
+            text.append("Student:\r\n");
+            line++;
+            for (int k = 0; k < written; k++) {
+                if (k != dropped) {
+                    text.append(lines[k]).append("\r\n");
+                    line++;
+                }
+                if (k == errorField) {
+                    expectedErrors.add(line + ": " + error);
+                }
+            }
+            if (written < KEYS.length) {
+                // Reported on the line after the record: the next "Student:" line, or one past the end
+                expectedErrors.add((line + 1) + ": " + error);
+                continue;
+            }
+            if (error == null) {
+                expectedStudents.add(describe(student));
+            }
+            for (int pad = random.nextInt(3); pad > 0; pad--) {
+                text.append(PADDING[random.nextInt(PADDING.length)]).append("\r\n");
+                line++;
+            }
+        }
+        Path file = directory.resolve("errors.txt");
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(expectedErrors.size() > ERROR_STUDENTS / 2, "errors should be injected throughout the file");
+        assertParallelResult(file, expectedStudents, expectedErrors);
+    }
+}
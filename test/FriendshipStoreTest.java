@@ -0,0 +1,148 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that {@link FriendshipStore} stays symmetric and counts every
+ * friendship exactly once while threads race single requests against small
+ * and large batches.
+ *
+ * @author LonghornNetwork Team
+ */
+class FriendshipStoreTest {
+    /** Number of student ids requests are drawn from */
+    private static final int STUDENTS = 500;
+    /** Number of writing threads */
+    private static final int WRITERS = 8;
+    /** Rounds of requests per writer */
+    private static final int ROUNDS = 300;
+
+    /**
+     * Packs an unordered pair of ids into one value.
+     *
+     * @param a one id
+     * @param b the other id
+     * @return the pair key
+     */
+    private static long key(int a, int b) {
+        return (long) Math.min(a, b) << 32 | Math.max(a, b);
+    }
+
+    /**
+     * Runs racing writers and a reader against one store and checks the result.
+     *
+     * @param stripeCount the number of lock stripes
+     * @throws InterruptedException if interrupted while joining the threads
+     */
+    private static void race(int stripeCount) throws InterruptedException {
+        FriendshipStore store = new FriendshipStore(new StudentDirectory(), stripeCount);
+        Set<Long> expected = Collections.synchronizedSet(new HashSet<>());
+        AtomicLong created = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            long seed = 31L * stripeCount + w;
+            writers.add(new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        // Single requests, small batches and batches larger than the stripe count
+                        int size = round % 3 == 0 ? 1 : round % 3 == 1 ? 1 + random.nextInt(stripeCount)
+                                : stripeCount + random.nextInt(2 * stripeCount + 50);
+                        int[] senders = new int[size];
+                        int[] receivers = new int[size];
+                        for (int i = 0; i < size; i++) {
+                            senders[i] = random.nextInt(STUDENTS);
+                            receivers[i] = random.nextInt(STUDENTS);
+                            if (senders[i] != receivers[i]) {
+                                expected.add(key(senders[i], receivers[i]));
+                            }
+                        }
+                        if (size == 1) {
+                            created.addAndGet(store.addFriendship(senders[0], receivers[0]) ? 1 : 0);
+                        } else {
+                            created.addAndGet(store.addFriendships(senders, receivers));
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            Random random = new Random(stripeCount);
+            try {
+                start.await();
+                while (writers.stream().anyMatch(Thread::isAlive)) {
+                    // Friendships only grow, so one direction seen means the other is there too
+                    int a = random.nextInt(STUDENTS);
+                    int b = random.nextInt(STUDENTS);
+                    if (store.areFriends(a, b) && !store.areFriends(b, a)) {
+                        throw new AssertionError("Friendship " + a + "-" + b + " is visible one way only");
+                    }
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        });
+        writers.forEach(Thread::start);
+        reader.start();
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        reader.join();
+        if (failure.get() != null) {
+            fail("stripes " + stripeCount, failure.get());
+        }
+
+        assertEquals(expected.size(), store.friendshipCount(), "stripes " + stripeCount);
+        assertEquals(expected.size(), created.get(), "each friendship is created once");
+        long directed = 0;
+        for (int a = 0; a < STUDENTS; a++) {
+            for (int b : store.friendsOf(a)) {
+                assertTrue(expected.contains(key(a, b)), a + "-" + b);
+                assertTrue(store.areFriends(b, a), b + "-" + a);
+                directed++;
+            }
+        }
+        assertEquals(2L * expected.size(), directed);
+    }
+
+    /**
+     * A single stripe, where every batch takes the one lock.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void oneStripe() throws InterruptedException {
+        race(1);
+    }
+
+    /**
+     * A few stripes, so that most batches lock every stripe.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void threeStripes() throws InterruptedException {
+        race(3);
+    }
+
+    /**
+     * The default stripe count, with both small and large batches.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void defaultStripes() throws InterruptedException {
+        race(FriendshipStore.DEFAULT_STRIPES);
+    }
+}
@@ -0,0 +1,119 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that {@link IncrementalGraphBuilder} and the streaming parser build
+ * the same graph as constructing a {@link StudentGraph} from the whole list.
+ *
+ * @author LonghornNetwork Team
+ */
+class IncrementalGraphBuilderTest {
+    /** Directory for the generated files */
+    @TempDir
+    Path directory;
+
+    /**
+     * Describes a graph by its nodes and neighbor lists, in order.
+     *
+     * @param graph the graph
+     * @return one line per node: its name, then each neighbor and weight
+     */
+    private static List<String> describe(StudentGraph graph) {
+        List<String> rows = new ArrayList<>();
+        for (UniversityStudent student : graph.getAllNodes()) {
+            StringBuilder row = new StringBuilder(student.name).append(':');
+            for (StudentGraph.Edge edge : graph.getNeighbors(student)) {
+                row.append(' ').append(edge.neighbor.name).append('=').append(edge.weight);
+            }
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+    /**
+     * Feeds students to a new builder one at a time.
+     *
+     * @param students the students
+     * @return the built graph
+     */
+    private static StudentGraph buildIncrementally(List<UniversityStudent> students) {
+        IncrementalGraphBuilder builder = new IncrementalGraphBuilder();
+        students.forEach(builder);
+        assertEquals(students.size(), builder.size());
+        return builder.build();
+    }
+
+    /**
+     * A generated cohort with roommates, including pairs where only one side
+     * names the other, a roommate arriving after the student who names it,
+     * a roommate outside the cohort, and repeated internships.
+     */
+    @Test
+    void cohortMatchesFullBuild() {
+        List<UniversityStudent> students = new CohortGenerator(18).generate(2000);
+        for (int i = 0; i + 1 < students.size(); i += 10) {
+            students.get(i).setRoommate(students.get(i + 1));
+            students.get(i + 1).setRoommate(students.get(i));
+        }
+        students.get(5).setRoommate(students.get(1500));
+        students.get(1700).setRoommate(students.get(7));
+        students.get(9).setRoommate(new UniversityStudent("Outside", 30, "Male", 4, "Art", 3.0,
+                new ArrayList<>(), new ArrayList<>()));
+        students.add(new UniversityStudent("Repeat", 19, "Female", 1, "Major0", 3.0,
+                new ArrayList<>(), new ArrayList<>(Arrays.asList("Company0", "Company0", "Company1"))));
+
+        assertEquals(describe(new StudentGraph(students)), describe(buildIncrementally(students)));
+        assertEquals(describe(new StudentGraph(students.subList(0, 50))),
+                describe(buildIncrementally(students.subList(0, 50))));
+    }
+
+    /**
+     * Streaming a file builds the same graph as parsing it into a list
+     * first, through both streamStudents and studentStream.
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Test
+    void streamedFileMatchesFullBuild() throws IOException {
+        Path file = directory.resolve("cohort.txt");
+        new CohortGenerator(1818).write(3000, file);
+        List<String> expected = describe(new StudentGraph(DataParser.parseStudents(file.toString())));
+
+        assertEquals(expected, describe(DataParser.streamGraph(file.toString())));
+        IncrementalGraphBuilder builder = new IncrementalGraphBuilder();
+        try (Stream<UniversityStudent> students = DataParser.studentStream(file.toString())) {
+            students.forEach(builder);
+        }
+        assertEquals(expected, describe(builder.build()));
+    }
+
+    /**
+     * A student added twice is kept once, and the builder cannot be used
+     * after the graph has been handed out.
+     */
+    @Test
+    void duplicatesAreIgnoredAndBuildIsFinal() {
+        UniversityStudent alice = new UniversityStudent("Alice", 20, "Female", 2, "CS", 3.5,
+                new ArrayList<>(), new ArrayList<>());
+        UniversityStudent bob = new UniversityStudent("Bob", 20, "Male", 2, "Math", 3.5,
+                new ArrayList<>(), new ArrayList<>());
+        IncrementalGraphBuilder builder = new IncrementalGraphBuilder();
+        builder.accept(alice);
+        builder.accept(bob);
+        builder.accept(alice);
+        assertEquals(2, builder.size());
+
+        StudentGraph graph = builder.build();
+        assertEquals(describe(new StudentGraph(Arrays.asList(alice, bob))), describe(graph));
+        assertThrows(IllegalStateException.class, () -> builder.accept(
+                new UniversityStudent("Carol", 21, "Female", 3, "CS", 3.5, new ArrayList<>(), new ArrayList<>())));
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that {@link PodFormation} covers every student once and only forms
+ * pods that are connected in the student graph.
+ *
+ * @author LonghornNetwork Team
+ */
+class PodFormationTest {
+    /**
+     * Checks that the pods partition the graph's students, respect the pod
+     * size, and that every pod of two or more students is connected by graph
+     * edges between its own members.
+     *
+     * @param graph   the student graph
+     * @param pods    the pods formed from it
+     * @param podSize the requested pod size
+     */
+    private static void assertConnectedPartition(StudentGraph graph, List<List<UniversityStudent>> pods,
+                                                 int podSize) {
+        CompactStudentGraph compact = graph.toCompact();
+        int[] podOf = new int[compact.size()];
+        Arrays.fill(podOf, -1);
+        for (int p = 0; p < pods.size(); p++) {
+            List<UniversityStudent> pod = pods.get(p);
+            assertFalse(pod.isEmpty());
+            assertTrue(pod.size() <= podSize, "pod larger than " + podSize + ": " + pod.size());
+            for (UniversityStudent student : pod) {
+                int id = compact.idOf(student);
+                assertEquals(-1, podOf[id], student.name + " is in two pods");
+                podOf[id] = p;
+            }
+        }
+        for (int id = 0; id < podOf.length; id++) {
+            assertNotEquals(-1, podOf[id], compact.student(id).name + " is in no pod");
+        }
+
+        for (int p = 0; p < pods.size(); p++) {
+            // Walk the graph from the pod's first student without leaving the pod
+            List<UniversityStudent> pod = pods.get(p);
+            Deque<Integer> pending = new ArrayDeque<>();
+            Set<Integer> reached = new HashSet<>();
+            int first = compact.idOf(pod.get(0));
+            pending.push(first);
+            reached.add(first);
+            while (!pending.isEmpty()) {
+                int current = pending.pop();
+                for (int e = compact.edgeStart(current); e < compact.edgeEnd(current); e++) {
+                    int neighbor = compact.target(e);
+                    if (podOf[neighbor] == p && reached.add(neighbor)) {
+                        pending.push(neighbor);
+                    }
+                }
+            }
+            assertEquals(pod.size(), reached.size(), "pod is not connected: " + pod);
+        }
+    }
+
+    /**
+     * On a star, where no two leaves are connected, every pod of two is the
+     * hub and one leaf, and the other leaves are alone.
+     */
+    @Test
+    void starPodsAreConnected() {
+        List<UniversityStudent> students = new ArrayList<>();
+        students.add(new UniversityStudent("Hub", 20, "Female", 2, "Hub", 3.5, new ArrayList<>(),
+                Arrays.asList("C1", "C2", "C3", "C4", "C5")));
+        for (int i = 1; i <= 5; i++) {
+            students.add(new UniversityStudent("Leaf" + i, 20 + i, "Male", 2, "Major" + i, 3.0,
+                    new ArrayList<>(), Collections.singletonList("C" + i)));
+        }
+        StudentGraph graph = new StudentGraph(students);
+        for (PodFormation.SpanningAlgorithm algorithm : PodFormation.SpanningAlgorithm.values()) {
+            List<List<UniversityStudent>> pods = new PodFormation(graph, algorithm, 2).formPods(2);
+            assertConnectedPartition(graph, pods, 2);
+            long pairs = pods.stream().filter(pod -> pod.size() == 2).count();
+            assertEquals(1, pairs, algorithm + " pods: " + pods);
+        }
+    }
+
+    /**
+     * Generated cohorts, with and without roommates, give connected pods for
+     * both spanning algorithms and several pod sizes.
+     */
+    @Test
+    void generatedCohortPodsAreConnected() {
+        for (long seed = 1; seed <= 3; seed++) {
+            List<UniversityStudent> students = new CohortGenerator(30, 200, 5, 2, 1.0, seed).generate(400);
+            if (seed == 3) {
+                GaleShapley.match(students).apply();
+            }
+            StudentGraph graph = new StudentGraph(students);
+            for (PodFormation.SpanningAlgorithm algorithm : PodFormation.SpanningAlgorithm.values()) {
+                for (int podSize : new int[] {1, 2, 3, 4, 7}) {
+                    assertConnectedPartition(graph, new PodFormation(graph, algorithm, 2).formPods(podSize), podSize);
+                }
+            }
+        }
+    }
+}
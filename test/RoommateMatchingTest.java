@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a {@link RoommateMatching} is a snapshot of the run that
+ * produced it.
+ *
+ * @author LonghornNetwork Team
+ */
+class RoommateMatchingTest {
+    /**
+     * Creates a student with the given roommate preferences.
+     *
+     * @param name        the student name
+     * @param preferences the preferred roommate names, most preferred first
+     * @return the student
+     */
+    private static UniversityStudent student(String name, String... preferences) {
+        return new UniversityStudent(name, 20, "Female", 2, "CS", 3.5,
+                new ArrayList<>(Arrays.asList(preferences)), new ArrayList<>());
+    }
+
+    /**
+     * Builds the students A and B, where A rooms with X, who is not in the
+     * list, and prefers X to B.
+     *
+     * @return A and B
+     */
+    private static List<UniversityStudent> withOutsideRoommate() {
+        UniversityStudent outside = student("X");
+        UniversityStudent a = student("A", "X", "B");
+        UniversityStudent b = student("B", "A");
+        a.setRoommate(outside);
+        outside.setRoommate(a);
+        return Arrays.asList(a, b);
+    }
+
+    /**
+     * Clearing an outside roommate after matching, before the metrics are
+     * first read, does not change them.
+     */
+    @Test
+    void metricsDoNotReadLaterStudentState() {
+        List<UniversityStudent> untouched = withOutsideRoommate();
+        RoommateMatching expectedGaleShapley = GaleShapley.match(untouched);
+        RoommateMatching expectedIrving = StableRoommates.match(untouched);
+
+        List<UniversityStudent> students = withOutsideRoommate();
+        RoommateMatching galeShapley = GaleShapley.match(students);
+        RoommateMatching irving = StableRoommates.match(students);
+        assertEquals(RoommateMatching.EXTERNAL, galeShapley.partnerOf(0));
+        students.get(0).getRoommate().setRoommate(null);
+        students.get(0).setRoommate(null);
+
+        assertEquals(expectedGaleShapley.getBlockingPairCount(), galeShapley.getBlockingPairCount());
+        assertEquals(expectedGaleShapley.isStable(), galeShapley.isStable());
+        assertEquals(expectedIrving.getBlockingPairCount(), irving.getBlockingPairCount());
+        assertEquals(expectedIrving.isStable(), irving.isStable());
+    }
+}
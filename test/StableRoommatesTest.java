@@ -0,0 +1,194 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares {@link StableRoommates} with a brute-force search over every
+ * matching of small random instances, with complete and incomplete
+ * preference lists.
+ *
+ * @author LonghornNetwork Team
+ */
+class StableRoommatesTest {
+    /** Random instances checked per list kind */
+    private static final int INSTANCES = 1500;
+    /** Largest instance size */
+    private static final int MAX_STUDENTS = 8;
+
+    /**
+     * Draws random preference lists.
+     *
+     * @param n        the number of students
+     * @param complete true to rank every other student, false to rank a random subset
+     * @param random   the random sequence
+     * @return the ranked student indexes of each student, most preferred first
+     */
+    private static int[][] randomPreferences(int n, boolean complete, Random random) {
+        int[][] preferences = new int[n][];
+        for (int i = 0; i < n; i++) {
+            List<Integer> others = new ArrayList<>();
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    others.add(j);
+                }
+            }
+            Collections.shuffle(others, random);
+            int length = complete ? others.size() : random.nextInt(others.size() + 1);
+            preferences[i] = others.subList(0, length).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return preferences;
+    }
+
+    /**
+     * Returns the rank of each student in each list.
+     *
+     * @param preferences the preference lists
+     * @return rank[i][j], or -1 if i does not list j
+     */
+    private static int[][] ranks(int[][] preferences) {
+        int n = preferences.length;
+        int[][] rank = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(rank[i], -1);
+            for (int k = 0; k < preferences[i].length; k++) {
+                rank[i][preferences[i][k]] = k;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns whether a matching has no blocking pair: two mutually
+     * acceptable students who are not together and each prefer the other to
+     * their partner, being unpaired ranking below every listed student.
+     *
+     * @param rank    the ranks
+     * @param partner the partner of each student, or -1
+     * @return true if the matching is stable
+     */
+    private static boolean isStable(int[][] rank, int[] partner) {
+        int n = partner.length;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (rank[i][j] < 0 || rank[j][i] < 0 || partner[i] == j) {
+                    continue;
+                }
+                boolean iPrefers = partner[i] < 0 || rank[i][j] < rank[i][partner[i]];
+                boolean jPrefers = partner[j] < 0 || rank[j][i] < rank[j][partner[j]];
+                if (iPrefers && jPrefers) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Searches every matching of mutually acceptable pairs for a stable one.
+     *
+     * @param rank    the ranks
+     * @param partner the partial matching, -1 for unpaired; restored on return
+     * @param from    the first student not yet decided
+     * @return true if some completion is stable
+     */
+    private static boolean stableMatchingExists(int[][] rank, int[] partner, int from) {
+        int n = partner.length;
+        while (from < n && partner[from] != -1) {
+            from++;
+        }
+        if (from == n) {
+            return isStable(rank, partner);
+        }
+        // Leave the student unpaired; -2 marks it as decided
+        partner[from] = -2;
+        boolean found = stableMatchingExists(rank, partner, from + 1);
+        partner[from] = -1;
+        for (int j = from + 1; j < n && !found; j++) {
+            if (partner[j] == -1 && rank[from][j] >= 0 && rank[j][from] >= 0) {
+                partner[from] = j;
+                partner[j] = from;
+                found = stableMatchingExists(rank, partner, from + 1);
+                partner[from] = -1;
+                partner[j] = -1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Runs Irving's algorithm on preference lists given as indexes.
+     *
+     * @param preferences the preference lists
+     * @return the matching
+     */
+    private static RoommateMatching irving(int[][] preferences) {
+        List<UniversityStudent> students = new ArrayList<>();
+        for (int i = 0; i < preferences.length; i++) {
+            List<String> names = new ArrayList<>();
+            for (int j : preferences[i]) {
+                names.add("P" + j);
+            }
+            students.add(new UniversityStudent("P" + i, 20, "Female", 2, "CS", 3.5, names, new ArrayList<>()));
+        }
+        return StableRoommates.match(students);
+    }
+
+    /**
+     * Checks Irving's result against brute force for one list kind.
+     *
+     * @param complete true for complete preference lists
+     * @param seed     the random seed
+     */
+    private static void compareWithBruteForce(boolean complete, long seed) {
+        Random random = new Random(seed);
+        int solvable = 0;
+        for (int instance = 0; instance < INSTANCES; instance++) {
+            int n = 1 + random.nextInt(MAX_STUDENTS);
+            int[][] preferences = randomPreferences(n, complete, random);
+            int[][] rank = ranks(preferences);
+            int[] empty = new int[n];
+            Arrays.fill(empty, -1);
+            boolean exists = stableMatchingExists(rank, empty, 0);
+            RoommateMatching matching = irving(preferences);
+            String context = "instance " + instance + ": " + Arrays.deepToString(preferences);
+
+            assertEquals(exists, matching.isSolved(), context);
+            if (!exists) {
+                continue;
+            }
+            solvable++;
+            assertEquals(0, matching.getBlockingPairCount(), context);
+            assertTrue(matching.isStable(), context);
+            int[] partner = matching.getPartners();
+            for (int i = 0; i < n; i++) {
+                int j = partner[i];
+                if (j == RoommateMatching.UNPAIRED) {
+                    partner[i] = -1;
+                    continue;
+                }
+                assertEquals(i, partner[j], context);
+                assertTrue(rank[i][j] >= 0 && rank[j][i] >= 0, context);
+            }
+            assertTrue(isStable(rank, partner), context);
+        }
+        assertTrue(solvable > 0 && solvable < INSTANCES, "instances should include both outcomes");
+    }
+
+    /**
+     * Complete preference lists.
+     */
+    @Test
+    void completeListsAgreeWithBruteForce() {
+        compareWithBruteForce(true, 15);
+    }
+
+    /**
+     * Incomplete preference lists, including empty ones and one-sided entries.
+     */
+    @Test
+    void incompleteListsAgreeWithBruteForce() {
+        compareWithBruteForce(false, 16);
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the friendship signal of {@link StudentGraph} keeps every edge
+ * weight within {@link CompactStudentGraph#MAX_WEIGHT}.
+ *
+ * @author LonghornNetwork Team
+ */
+class StudentGraphFriendshipSignalTest {
+    /**
+     * Creates a student with the given major and internships.
+     *
+     * @param name        the student name
+     * @param major       the major
+     * @param internships the previous internships
+     * @return the student
+     */
+    private static UniversityStudent student(String name, String major, String... internships) {
+        return new UniversityStudent(name, 20, "Female", 2, major, 3.5,
+                new ArrayList<>(), new ArrayList<>(Arrays.asList(internships)));
+    }
+
+    /**
+     * Returns the weight of the compact edge between two students.
+     *
+     * @param graph the compact graph
+     * @param from  one student
+     * @param to    the other student
+     * @return the weight, or 0 if there is no edge
+     */
+    private static int weight(CompactStudentGraph graph, UniversityStudent from, UniversityStudent to) {
+        int id = graph.idOf(from);
+        for (int e = graph.edgeStart(id); e < graph.edgeEnd(id); e++) {
+            if (graph.target(e) == graph.idOf(to)) {
+                return graph.weight(e);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A strong connection plus the largest friendship weight is capped at
+     * the maximum, so the graph still converts to its compact form.
+     */
+    @Test
+    void summedWeightIsClampedToMaximum() {
+        UniversityStudent alice = student("Alice", "CS", "Google", "Meta");
+        UniversityStudent bob = student("Bob", "CS", "Google", "Meta");
+        UniversityStudent carol = student("Carol", "Math");
+        List<UniversityStudent> students = Arrays.asList(alice, bob, carol);
+        StudentGraph graph = new StudentGraph(students);
+        int base = alice.calculateConnectionStrength(bob);
+        assertTrue(base > 0);
+
+        FriendshipStore friendships = new FriendshipStore();
+        friendships.addFriendship(alice, bob);
+        friendships.addFriendship(bob, carol);
+        graph.setFriendshipSignal(friendships, CompactStudentGraph.MAX_WEIGHT);
+
+        CompactStudentGraph compact = graph.toCompact();
+        assertEquals(CompactStudentGraph.MAX_WEIGHT, weight(compact, alice, bob));
+        assertEquals(CompactStudentGraph.MAX_WEIGHT, weight(compact, bob, alice));
+        assertEquals(Math.min(CompactStudentGraph.MAX_WEIGHT, bob.calculateConnectionStrength(carol)
+                + CompactStudentGraph.MAX_WEIGHT), weight(compact, bob, carol));
+
+        // Recomputing rows applies the same cap
+        alice.setRoommate(bob);
+        bob.setRoommate(alice);
+        graph.onRoommatesChanged(students);
+        assertEquals(CompactStudentGraph.MAX_WEIGHT, weight(graph.toCompact(), alice, bob));
+    }
+
+    /**
+     * A friendship weight above the maximum edge weight is rejected.
+     */
+    @Test
+    void weightAboveMaximumIsRejected() {
+        StudentGraph graph = new StudentGraph(Collections.singletonList(student("Alice", "CS")));
+        FriendshipStore friendships = new FriendshipStore();
+        assertThrows(IllegalArgumentException.class,
+                () -> graph.setFriendshipSignal(friendships, CompactStudentGraph.MAX_WEIGHT + 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.setFriendshipSignal(friendships, -1));
+    }
+}
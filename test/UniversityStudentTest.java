@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that connection strengths follow changes to a student's major and
+ * internships, even though they are scored from cached interned ids.
+ *
+ * @author LonghornNetwork Team
+ */
+class UniversityStudentTest {
+    /**
+     * Creates a student aged 20 with the given major and internships.
+     *
+     * @param name        the student name
+     * @param major       the major
+     * @param internships the previous internships
+     * @return the student
+     */
+    private static UniversityStudent student(String name, String major, String... internships) {
+        return new UniversityStudent(name, 20, "Female", 2, major, 3.5,
+                new ArrayList<>(), new ArrayList<>(Arrays.asList(internships)));
+    }
+
+    /**
+     * The internship list cannot be changed in place, so it can never
+     * disagree with the cached ids.
+     */
+    @Test
+    void internshipListIsUnmodifiable() {
+        UniversityStudent alice = student("Alice", "CS", "Google");
+        assertThrows(UnsupportedOperationException.class, () -> alice.previousInternships.add("Meta"));
+    }
+
+    /**
+     * Adding an internship through the student updates the strength.
+     */
+    @Test
+    void addedInternshipIsScored() {
+        UniversityStudent alice = student("Alice", "CS", "Google");
+        UniversityStudent bob = student("Bob", "Math", "Meta");
+        assertEquals(1, alice.calculateConnectionStrength(bob));
+        alice.addInternship("Meta");
+        assertEquals(Arrays.asList("Google", "Meta"), alice.previousInternships);
+        assertEquals(4, alice.calculateConnectionStrength(bob));
+        assertEquals(4, bob.calculateConnectionStrength(alice));
+    }
+
+    /**
+     * Replacing the major or the internship list directly is detected.
+     */
+    @Test
+    void replacedFieldsAreScored() {
+        UniversityStudent alice = student("Alice", "CS");
+        UniversityStudent bob = student("Bob", "Math", "Meta");
+        assertEquals(1, alice.calculateConnectionStrength(bob));
+        alice.major = "Math";
+        assertEquals(3, alice.calculateConnectionStrength(bob));
+        alice.previousInternships = new ArrayList<>(Collections.singletonList("Meta"));
+        assertEquals(6, alice.calculateConnectionStrength(bob));
+        alice.previousInternships.add("Google");
+        bob.previousInternships = Arrays.asList("Meta", "Google");
+        assertEquals(9, bob.calculateConnectionStrength(alice));
+    }
+}